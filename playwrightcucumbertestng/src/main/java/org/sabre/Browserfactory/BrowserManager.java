@@ -13,8 +13,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class BrowserManager {
-    private static final ThreadLocal<Playwright> playwright = new ThreadLocal<>(); //used to create an instance of the Chromium, Firefox browser etc.
-    private static final ThreadLocal<Browser> browser = new ThreadLocal<>(); //represents the browser instance.
     private static final ThreadLocal<BrowserContext> context = new ThreadLocal<>(); //is the isolated browser session.
     private static final ThreadLocal<Page> page = new ThreadLocal<>(); //is the single tab or window in the browser.
     public Properties properties;
@@ -54,47 +52,41 @@ public class BrowserManager {
     }
 
     public void setUp() {
-        logger.info("Setting up Playwright...");
+        logger.info("Leasing a browser context...");
         // Get viewport size of screen
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         int width = (int) screenSize.getWidth();
         int height = (int) screenSize.getHeight();
 
-        playwright.set(Playwright.create());
-
         String browserType = properties.getProperty("browser", "chromium");
+        //Contexts open at once across all workers; defaults to the worker count
+        int maxContexts = Integer.parseInt(properties.getProperty("MaxContexts",
+                System.getProperty("ThreadCount", String.valueOf(Runtime.getRuntime().availableProcessors()))).trim());
+        long leaseTimeout = Long.parseLong(properties.getProperty("ContextLeaseTimeout", "300000").trim());
+        BrowserPool.setRecycleLimits(Integer.parseInt(properties.getProperty("RecycleAfterScenarios", "0").trim()),
+                Integer.parseInt(properties.getProperty("RecycleAfterMinutes", "0").trim()),
+                Integer.parseInt(properties.getProperty("RecycleRssMB", "0").trim()));
 
-        switch (browserType.toLowerCase()) {
-            case "chromium":
-               browser.set(playwright.get().chromium().launch(new BrowserType.LaunchOptions().setHeadless(false)));
-                break;
-            case "firefox":
-                browser.set(playwright.get().firefox().launch(new BrowserType.LaunchOptions().setHeadless(false)));
-                break;
-            default:
-                logger.warning("Unsupported browser type: " + browserType + ". Defaulting to chromium.");
-                browser.set(playwright.get().chromium().launch(new BrowserType.LaunchOptions().setHeadless(false)));
-                break;
-        }
-        context.set(browser.get().newContext(new Browser.NewContextOptions().setViewportSize(width, height)));
+        context.set(BrowserPool.lease(browserType, maxContexts, leaseTimeout, new Browser.NewContextOptions().setViewportSize(width, height)));
         page.set(context.get().newPage());
         page.get().setDefaultNavigationTimeout(Double.parseDouble(properties.getProperty("NavigationTimeout","60000")));
         page.get().setDefaultTimeout(Double.parseDouble(properties.getProperty("ActionTimeout","60000")));
-        logger.info("Playwright setup complete!");
+        logger.info("Browser context ready!");
     }
 
     public void tearDown() {
         try{
-            logger.info("Tearing down Playwright...");
+            logger.info("Returning browser context...");
             if (page.get() != null) page.get().close();
-            if (context.get() != null) context.get().close();
-            if (browser.get() != null) browser.get().close();
-            if (playwright.get() != null) playwright.get().close();
-            logger.info("Playwright teardown complete!");
+            logger.info("Browser context returned!");
         }catch (Exception e){
             logger.log(Level.SEVERE, "Error during Playwright teardown!", e);
+        } finally {
+            //The worker's browser and Playwright stay open for its next scenario
+            BrowserPool.release(context.get());
+            context.remove();
+            page.remove();
         }
 
     }
 }
-
@@ -0,0 +1,228 @@
+package org.sabre.Browserfactory;
+
+import com.microsoft.playwright.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Long-lived browsers shared by the data provider threads, one Playwright + Browser per worker thread
+ * (Playwright objects must stay on the thread that created them). Scenarios lease a fresh context from
+ * their worker's browser; a semaphore caps how many contexts are open across all workers at once.
+ * A worker's browser is recycled at lease time - between its scenarios - once it has served
+ * RecycleAfterScenarios scenarios, is RecycleAfterMinutes old, or its processes use RecycleRssMB of memory
+ * (read from /proc, Linux only). 0 disables a limit.
+ */
+public class BrowserPool {
+    private static final Logger logger = Logger.getLogger(BrowserPool.class.getName());
+
+    private static final ThreadLocal<Playwright> playwright = new ThreadLocal<>();
+    private static final ThreadLocal<Browser> browser = new ThreadLocal<>();
+    //Every worker's Playwright, closed together in shutdown()
+    private static final Queue<Playwright> allPlaywrights = new ConcurrentLinkedQueue<>();
+    //Age, scenario count and driver process of this worker's browser, for recycling
+    private static final ThreadLocal<long[]> browserState = new ThreadLocal<>();
+    private static final ThreadLocal<String> lastRecycle = new ThreadLocal<>();
+    private static final Queue<String> recycleEvents = new ConcurrentLinkedQueue<>();
+    private static final Object CREATE_LOCK = new Object();
+    private static final int LAUNCHED_AT = 0, SCENARIOS = 1, DRIVER_PID = 2;
+
+    private static volatile int recycleAfterScenarios;
+    private static volatile int recycleAfterMinutes;
+    private static volatile int recycleRssMb;
+
+    private static volatile Semaphore contextPermits;
+    private static final AtomicInteger browserLaunches = new AtomicInteger(0);
+    private static final AtomicInteger leases = new AtomicInteger(0);
+    private static final AtomicLong leaseWaitMillis = new AtomicLong(0);
+
+    private BrowserPool() {
+    }
+
+    /**
+     * Set the recycle limits checked before each lease. 0 disables a limit.
+     */
+    public static void setRecycleLimits(int afterScenarios, int afterMinutes, int rssMb) {
+        recycleAfterScenarios = afterScenarios;
+        recycleAfterMinutes = afterMinutes;
+        recycleRssMb = rssMb;
+    }
+
+    /**
+     * Why this worker's browser was recycled before the current lease, or null if it was reused or launched fresh
+     */
+    public static String getLastRecycle() {
+        return lastRecycle.get();
+    }
+
+    /**
+     * Lease a new context (and page) from this worker's browser, launching the browser on first use.
+     * Blocks while maxContexts contexts are already leased.
+     */
+    public static BrowserContext lease(String browserType, int maxContexts, long timeoutMillis, Browser.NewContextOptions options) {
+        Semaphore permits = getPermits(maxContexts);
+        long start = System.currentTimeMillis();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out after " + timeoutMillis + " ms waiting for a browser context (MaxContexts=" + maxContexts + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser context", e);
+        }
+        leaseWaitMillis.addAndGet(System.currentTimeMillis() - start);
+        try {
+            BrowserContext context = getBrowser(browserType).newContext(options);
+            browserState.get()[SCENARIOS]++;
+            leases.incrementAndGet();
+            return context;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the leased context and hand its permit back. The browser stays open for the worker's next scenario.
+     */
+    public static void release(BrowserContext context) {
+        //No context means the lease itself failed and holds no permit
+        if (context == null) return;
+        try {
+            context.close();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error closing leased browser context", e);
+        } finally {
+            if (contextPermits != null) contextPermits.release();
+        }
+    }
+
+    private static synchronized Semaphore getPermits(int maxContexts) {
+        if (contextPermits == null) {
+            contextPermits = new Semaphore(Math.max(1, maxContexts), true);
+            logger.info("Browser pool allows " + Math.max(1, maxContexts) + " concurrent contexts");
+        }
+        return contextPermits;
+    }
+
+    private static Browser getBrowser(String browserType) {
+        Browser current = browser.get();
+        lastRecycle.remove();
+        if (current != null && current.isConnected()) {
+            String reason = getRecycleReason();
+            if (reason == null) {
+                return current;
+            }
+            String event = Thread.currentThread().getName() + ": " + reason;
+            recycleEvents.add(event);
+            lastRecycle.set(reason);
+            logger.info("Recycling worker browser - " + event);
+        }
+        //First scenario on this worker, its browser crashed, or a recycle limit was reached
+        if (playwright.get() != null) {
+            allPlaywrights.remove(playwright.get());
+            playwright.get().close();
+        }
+        logger.info("Launching " + browserType + " for worker thread " + Thread.currentThread().getName());
+        Playwright workerPlaywright;
+        long driverPid;
+        //Playwright does not expose process ids; the driver is the JVM child that appears during create()
+        synchronized (CREATE_LOCK) {
+            Set<Long> before = childPids();
+            workerPlaywright = Playwright.create();
+            driverPid = childPids().stream().filter(pid -> !before.contains(pid)).findFirst().orElse(-1L);
+        }
+        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions().setHeadless(false);
+        switch (browserType.toLowerCase()) {
+            case "chromium":
+                current = workerPlaywright.chromium().launch(launchOptions);
+                break;
+            case "firefox":
+                current = workerPlaywright.firefox().launch(launchOptions);
+                break;
+            default:
+                logger.warning("Unsupported browser type: " + browserType + ". Defaulting to chromium.");
+                current = workerPlaywright.chromium().launch(launchOptions);
+                break;
+        }
+        playwright.set(workerPlaywright);
+        browser.set(current);
+        browserState.set(new long[]{System.currentTimeMillis(), 0, driverPid});
+        allPlaywrights.add(workerPlaywright);
+        browserLaunches.incrementAndGet();
+        return current;
+    }
+
+    private static String getRecycleReason() {
+        long[] state = browserState.get();
+        if (recycleAfterScenarios > 0 && state[SCENARIOS] >= recycleAfterScenarios) {
+            return "scenario count " + state[SCENARIOS] + " reached limit " + recycleAfterScenarios;
+        }
+        long ageMinutes = (System.currentTimeMillis() - state[LAUNCHED_AT]) / 60000;
+        if (recycleAfterMinutes > 0 && ageMinutes >= recycleAfterMinutes) {
+            return "age " + ageMinutes + " min reached limit " + recycleAfterMinutes + " min after " + state[SCENARIOS] + " scenarios";
+        }
+        if (recycleRssMb > 0 && state[DRIVER_PID] > 0) {
+            long rssMb = ProcessHandle.of(state[DRIVER_PID])
+                    .map(driver -> driver.descendants().mapToLong(process -> readRssKb(process.pid())).sum())
+                    .orElse(0L) / 1024;
+            if (rssMb >= recycleRssMb) {
+                return "browser RSS " + rssMb + " MB exceeded limit " + recycleRssMb + " MB after " + state[SCENARIOS] + " scenarios";
+            }
+        }
+        return null;
+    }
+
+    private static long readRssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            //Process exited or /proc is not available
+        }
+        return 0;
+    }
+
+    private static Set<Long> childPids() {
+        return ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+    }
+
+    public static String getStats() {
+        int leaseCount = leases.get();
+        return String.format("browser launches=%d, context leases=%d, avg wait for a context=%d ms, recycles=%d%s",
+                browserLaunches.get(), leaseCount, leaseCount > 0 ? leaseWaitMillis.get() / leaseCount : 0,
+                recycleEvents.size(), recycleEvents.isEmpty() ? "" : " (" + String.join("; ", recycleEvents) + ")");
+    }
+
+    /**
+     * Close every worker's browser and Playwright. Called once after all scenarios have finished.
+     */
+    public static void shutdown() {
+        Playwright workerPlaywright;
+        while ((workerPlaywright = allPlaywrights.poll()) != null) {
+            try {
+                workerPlaywright.close();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Error closing worker Playwright", e);
+            }
+        }
+        playwright.remove();
+        browser.remove();
+        browserState.remove();
+        lastRecycle.remove();
+    }
+}
@@ -2,6 +2,7 @@ package step_definitions.hooks;
 
 import io.cucumber.java.*;
 import org.sabre.Browserfactory.BrowserManager;
+import org.sabre.Browserfactory.BrowserPool;
 
 public class Hooks {
     private final BrowserManager browserManager;
@@ -19,14 +20,19 @@ public class Hooks {
     //Runs once after all tests are done
     @AfterAll
     public static void afterAll() {
+        System.out.println("\nBrowser pool: " + BrowserPool.getStats());
+        BrowserPool.shutdown();
         System.out.println("\nFinished executing the test suite!");
     }
 
     //Runs before each test
     @Before
-    public void setup() {
+    public void setup(Scenario scenario) {
         System.out.println("\nStarted Before executing the test!");
         browserManager.setUp();
+        if (BrowserPool.getLastRecycle() != null) {
+            scenario.log("Browser recycled before this scenario: " + BrowserPool.getLastRecycle());
+        }
     }
 
     //Runs after each test
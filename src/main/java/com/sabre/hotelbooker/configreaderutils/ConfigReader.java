@@ -5,18 +5,49 @@ import java.io.IOException;
 import java.util.Properties;
 
 public class ConfigReader {
-    private static Properties properties;
+    private static volatile Properties properties;
     public static String getProperty(String key) {
-        if(properties == null) {
-         properties = new Properties();
-        String env = System.getProperty("env", "DEV").toUpperCase();
-        String propFile = String.format("src/test/resources/env/%s.properties", env);
-        try (FileInputStream fis = new FileInputStream(propFile)) {
-            properties.load(fis);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not load properties file for environment: " + env + " (" + propFile + ")", e);
+        if (properties == null) {
+            loadProperties();
         }
-    }
         return properties.getProperty(key);
     }
-}
\ No newline at end of file
+
+    // Loaded once; synchronized so parallel workers never see a half-loaded Properties
+    private static synchronized void loadProperties() {
+        if (properties == null) {
+            Properties loaded = new Properties();
+            String env = System.getProperty("env", "DEV").toUpperCase();
+            String propFile = String.format("src/test/resources/env/%s.properties", env);
+            try (FileInputStream fis = new FileInputStream(propFile)) {
+                loaded.load(fis);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not load properties file for environment: " + env + " (" + propFile + ")", e);
+            }
+            properties = loaded;
+        }
+    }
+
+    /**
+     * Get a property with a fallback value. A -D system property of the same name overrides the env file.
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            value = getProperty(key);
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
+    }
+}
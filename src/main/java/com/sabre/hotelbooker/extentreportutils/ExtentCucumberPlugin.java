@@ -4,13 +4,15 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ExtentCucumberPlugin implements ConcurrentEventListener {
     private ExtentReports extent = ExtentReportManager.getInstance();
-    private Map<String, ExtentTest> scenarioTestMap = new HashMap<>();
-    private Map<String, Integer> scenarioExampleCounter = new HashMap<>();
+    // Concurrent maps: handlers are invoked on the worker threads when scenarios run in parallel
+    private Map<String, ExtentTest> scenarioTestMap = new ConcurrentHashMap<>();
+    private Map<String, String> scenarioJournalMap = new ConcurrentHashMap<>();
+    private Map<String, Integer> scenarioExampleCounter = new ConcurrentHashMap<>();
 
     @Override
     public void setEventPublisher(EventPublisher publisher) {
@@ -29,17 +31,17 @@ public class ExtentCucumberPlugin implements ConcurrentEventListener {
             // Only append if there is more than one example or always for outlines
             uniqueScenarioName = scenarioName + " (TestCase #" + exampleNum + ")";
         }
-        if (!scenarioTestMap.containsKey(scenarioId)) {
-            ExtentTest test = extent.createTest(uniqueScenarioName);
-            scenarioTestMap.put(scenarioId, test);
+        final String testName = uniqueScenarioName;
+        if (ExtentReportManager.isLiveReport()) {
+            scenarioTestMap.computeIfAbsent(scenarioId, id -> ExtentReportManager.createTest(testName));
         }
+        scenarioJournalMap.computeIfAbsent(scenarioId, id -> ResultJournal.startTest(null, testName));
     }
 
     private void handleStepFinished(TestStepFinished event) {
         String testCaseId = event.getTestCase().getId().toString();
-        ExtentTest test = scenarioTestMap.get(testCaseId);
         
-        if (test != null && event.getTestStep() instanceof PickleStepTestStep) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
             PickleStepTestStep pickleStep = (PickleStepTestStep) event.getTestStep();
             String stepText = pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
             Status stepStatus = event.getResult().getStatus();
@@ -47,29 +49,29 @@ public class ExtentCucumberPlugin implements ConcurrentEventListener {
             // Log step based on its actual execution result
             switch (stepStatus) {
                 case PASSED:
-                    test.pass(stepText);
+                    log(testCaseId, com.aventstack.extentreports.Status.PASS, stepText);
                     break;
                 case FAILED:
                     Throwable error = event.getResult().getError();
                     String errorMessage = error != null ? error.getMessage() : "Unknown error";
-                    test.fail(stepText + " - " + errorMessage);
+                    log(testCaseId, com.aventstack.extentreports.Status.FAIL, stepText + " - " + errorMessage);
                     
                     // Check if this is a critical failure and add additional info
                     if (error != null && error.getClass().getSimpleName().equals("CriticalTestFailureException")) {
-                        test.fail("CRITICAL FAILURE: Test execution stopped immediately");
+                        log(testCaseId, com.aventstack.extentreports.Status.FAIL, "CRITICAL FAILURE: Test execution stopped immediately");
                     }
                     break;
                 case SKIPPED:
-                    test.skip(stepText + " - Skipped");
+                    log(testCaseId, com.aventstack.extentreports.Status.SKIP, stepText + " - Skipped");
                     break;
                 case PENDING:
-                    test.warning(stepText + " - Pending");
+                    log(testCaseId, com.aventstack.extentreports.Status.WARNING, stepText + " - Pending");
                     break;
                 case UNDEFINED:
-                    test.warning(stepText + " - Undefined");
+                    log(testCaseId, com.aventstack.extentreports.Status.WARNING, stepText + " - Undefined");
                     break;
                 default:
-                    test.info(stepText + " - " + stepStatus.toString());
+                    log(testCaseId, com.aventstack.extentreports.Status.INFO, stepText + " - " + stepStatus.toString());
                     break;
             }
         }
@@ -77,38 +79,51 @@ public class ExtentCucumberPlugin implements ConcurrentEventListener {
 
     private void handleTestCaseFinished(TestCaseFinished event) {
         String testCaseId = event.getTestCase().getId().toString();
-        ExtentTest test = scenarioTestMap.get(testCaseId);
+        Status status = event.getResult().getStatus();
         
-        if (test != null) {
-            Status status = event.getResult().getStatus();
-            
-            switch (status) {
-                case PASSED:
-                    test.pass("Test Completed Successfully");
-                    break;
-                case FAILED:
-                    Throwable error = event.getResult().getError();
-                    if (error != null && error.getClass().getSimpleName().equals("CriticalTestFailureException")) {
-                        test.fail("Test Failed Due to Critical Failure - Execution Stopped Immediately");
-                    } else {
-                        test.fail("Test Failed: " + (error != null ? error.getMessage() : "Unknown error"));
-                    }
-                    if (error != null) {
+        switch (status) {
+            case PASSED:
+                log(testCaseId, com.aventstack.extentreports.Status.PASS, "Test Completed Successfully");
+                break;
+            case FAILED:
+                Throwable error = event.getResult().getError();
+                if (error != null && error.getClass().getSimpleName().equals("CriticalTestFailureException")) {
+                    log(testCaseId, com.aventstack.extentreports.Status.FAIL, "Test Failed Due to Critical Failure - Execution Stopped Immediately");
+                } else {
+                    log(testCaseId, com.aventstack.extentreports.Status.FAIL, "Test Failed: " + (error != null ? error.getMessage() : "Unknown error"));
+                }
+                if (error != null) {
+                    ExtentTest test = scenarioTestMap.get(testCaseId);
+                    if (test != null) {
                         test.fail(error);
                     }
-                    break;
-                case SKIPPED:
-                    test.skip("Test Skipped");
-                    break;
-                default:
-                    test.info("Test Status: " + status.toString());
-                    break;
-            }
+                    ResultJournal.logError(scenarioJournalMap.get(testCaseId), error);
+                }
+                break;
+            case SKIPPED:
+                log(testCaseId, com.aventstack.extentreports.Status.SKIP, "Test Skipped");
+                break;
+            default:
+                log(testCaseId, com.aventstack.extentreports.Status.INFO, "Test Status: " + status.toString());
+                break;
         }
         
         // Clean up tracking maps for this test case
         scenarioTestMap.remove(testCaseId);
+        scenarioJournalMap.remove(testCaseId);
         
-        extent.flush();
+        // Rendered by the background writer; the final flush happens in Hooks.tearDownAll
+        ExtentReportManager.requestFlush();
+    }
+
+    /**
+     * Log to the scenario's test in the live report (when built) and in the result journal
+     */
+    private void log(String testCaseId, com.aventstack.extentreports.Status status, String message) {
+        ExtentTest test = scenarioTestMap.get(testCaseId);
+        if (test != null) {
+            test.log(status, message);
+        }
+        ResultJournal.log(scenarioJournalMap.get(testCaseId), status, message);
     }
 }
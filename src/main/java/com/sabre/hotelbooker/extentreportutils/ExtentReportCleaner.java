@@ -2,127 +2,161 @@ package com.sabre.hotelbooker.extentreportutils;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Writes the run statistics (see RunStatistics) into the summary row at the top of the Spark dashboard.
+ * The report is streamed line by line into a temporary file and swapped in, so only the current line is
+ * held in memory and the cost is one sequential pass whatever the report size.
+ *
+ * ExtentReportManager does this at the final flush. The main method, run in the Maven verify phase, covers
+ * reports rendered without it (e.g. by JournalReportRenderer) from the run-statistics.json next to the report;
+ * a report that already has the statistics is left alone.
+ */
 public class ExtentReportCleaner {
+    // Dashboard section and its first row (Started / Ended / Passed / Failed cards) in the Spark template
+    private static final String DASHBOARD_VIEW = "dashboard-view";
+    // Prefix, so a row already carrying the statistics class is found as the first row
+    private static final String FIRST_ROW = "<div class=\"row";
+    private static final String STATISTICS_ROW_CLASS = "run-statistics";
+    private static final Pattern DIV_TAG = Pattern.compile("<div[\\s>]|</div>");
+
     public static void main(String[] args) throws IOException {
         String reportPath = findLatestExtentReport();
         if (reportPath == null) {
             System.err.println("No ExtentReport.html found in reports directory.");
             return;
         }
-        String html = readFile(reportPath);
-
-        // Count test cases and steps
-        int testCaseCount = countOccurrences(html, "li class=\"test-item");
-        int stepPassed = countOccurrences(html, "badge log pass-bg");
-        int stepFailed = countOccurrences(html, "badge log fail-bg");
-        int stepOthers = countOccurrences(html, "badge log info-bg");
-        int featureCount = 1; // You can enhance this to count unique features if needed
-
-        // Correct regex string escaping for Java
-        String dashboardRegex =
-            "(<div class=\"row\">\\s*"
-            + "<div class=\"col-md-3\">[\\s\\S]*?</div>\\s*"
-            + "<div class=\"col-md-3\">[\\s\\S]*?</div>\\s*"
-            + "<div class=\"col-md-3\">[\\s\\S]*?</div>\\s*"
-            + "<div class=\"col-md-3\">[\\s\\S]*?</div>\\s*</div>)";
-        Pattern pattern = Pattern.compile(dashboardRegex);
-        Matcher matcher = pattern.matcher(html);
-
-        String replacement = "<div class=\"row\">\n" +
-                "    <div class=\"col-md-4\">\n" +
-                "        <div class=\"card\">\n" +
-                "            <div class=\"card-header\">\n" +
-                "                <h6 class=\"card-title\">Features</h6>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-body\">\n" +
-                "                <div class=\"\">\n" +
-                "                    <canvas id='parent-analysis' width='115' height='90'></canvas>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-footer\">\n" +
-                "                <div><small data-tooltip='100%'>\n" +
-                "<b>" + featureCount + "</b> Feature passed\n" +
-                "</small>\n" +
-                "                </div>\n" +
-                "                <div>\n" +
-                "                    <small data-tooltip='0%'><b>0</b> Feature failed,<br><b>0</b> skipped, <b data-tooltip='0%'>0</b> others\n" +
-                "</small>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "    <div class=\"col-md-4\">\n" +
-                "        <div class=\"card\">\n" +
-                "            <div class=\"card-header\">\n" +
-                "                <h6 class=\"card-title\">TestCases</h6>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-body\">\n" +
-                "                <div class=\"\">\n" +
-                "                    <canvas id='child-analysis' width='115' height='90'></canvas>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-footer\">\n" +
-                "                <div><small data-tooltip='100%'><b>" + testCaseCount + "</b> TestCases passed</small></div>\n" +
-                "                <div>\n" +
-                "                    <small data-tooltip='0%'><b>0</b> TestCases failed,<br><b>0</b> skipped, <b data-tooltip='%'>0</b> others\n" +
-                "</small>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "    <div class=\"col-md-4\">\n" +
-                "        <div class=\"card\">\n" +
-                "            <div class=\"card-header\">\n" +
-                "                <h6 class=\"card-title\">Step events</h6>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-body\">\n" +
-                "                <div class=\"\">\n" +
-                "                    <canvas id='events-analysis' width='115' height='90'></canvas>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "            <div class=\"card-footer\">\n" +
-                "                <div><small data-tooltip='75%'><b>" + stepPassed + "</b> Step passed</small></div>\n" +
-                "                <div>\n" +
-                "                    <small data-tooltip='0%'><b>" + stepFailed + "</b> Step failed,<br><b data-tooltip='%'>" + stepOthers + "</b> others\n" +
-                "</small>\n" +
-                "                </div>\n" +
-                "            </div>\n" +
-                "        </div>\n" +
-                "    </div>\n" +
-                "</div>";
-
-        String newHtml = matcher.replaceFirst(Matcher.quoteReplacement(replacement));
-        writeFile(reportPath, newHtml);
-        System.out.println("Extent report cleaned and dashboard updated: " + reportPath);
-    }
-
-    private static int countOccurrences(String str, String sub) {
-        int count = 0, idx = 0;
-        while ((idx = str.indexOf(sub, idx)) != -1) {
-            count++;
-            idx += sub.length();
+        Path report = new File(reportPath).toPath();
+        RunStatistics.Snapshot statistics = RunStatistics.Snapshot.read(report.resolveSibling(RunStatistics.FILE_NAME));
+        if (statistics == null) {
+            System.err.println("No " + RunStatistics.FILE_NAME + " next to " + reportPath + "; dashboard left as rendered.");
+            return;
+        }
+        if (rewriteDashboard(report, statistics)) {
+            System.out.println("Extent report dashboard updated: " + reportPath);
+        } else {
+            System.out.println("Extent report dashboard already up to date: " + reportPath);
         }
-        return count;
     }
 
-    private static String readFile(String path) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
-            StringBuilder sb = new StringBuilder();
+    /**
+     * Replace the first dashboard row with the run statistics
+     * @return false when the report has no dashboard row or already carries the statistics (file unchanged)
+     */
+    public static boolean rewriteDashboard(Path report, RunStatistics.Snapshot statistics) throws IOException {
+        Path temp = report.resolveSibling(report.getFileName() + ".tmp");
+        boolean replaced = false;
+        try (BufferedReader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            boolean inDashboard = false;
+            boolean done = false;
+            int depth = -1;
             String line;
             while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
+                int from = 0;
+                if (!done && !inDashboard && line.contains(DASHBOARD_VIEW)) {
+                    inDashboard = true;
+                    from = line.indexOf(DASHBOARD_VIEW);
+                }
+                if (!done && inDashboard && depth < 0) {
+                    int rowStart = line.indexOf(FIRST_ROW, from);
+                    if (rowStart >= 0) {
+                        writer.write(line, 0, rowStart);
+                        depth = 0;
+                        from = rowStart;
+                    }
+                }
+                if (!done && depth >= 0) {
+                    // Inside the row being replaced: drop everything up to its closing tag
+                    if (line.indexOf(STATISTICS_ROW_CLASS, from) >= 0) {
+                        break;
+                    }
+                    Matcher tag = DIV_TAG.matcher(line);
+                    int rowEnd = -1;
+                    int position = from;
+                    while (rowEnd < 0 && tag.find(position)) {
+                        depth += tag.group().startsWith("</") ? -1 : 1;
+                        position = tag.end();
+                        if (depth == 0) {
+                            rowEnd = tag.end();
+                        }
+                    }
+                    if (rowEnd < 0) {
+                        continue;
+                    }
+                    writer.write(buildStatisticsRow(statistics));
+                    writer.write(line, rowEnd, line.length() - rowEnd);
+                    writer.write('\n');
+                    done = true;
+                    replaced = true;
+                    continue;
+                }
+                writer.write(line);
+                writer.write('\n');
             }
-            return sb.toString();
         }
+        if (!replaced) {
+            Files.deleteIfExists(temp);
+            return false;
+        }
+        try {
+            Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
     }
 
-    private static void writeFile(String path, String content) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8))) {
-            writer.write(content);
+    private static String buildStatisticsRow(RunStatistics.Snapshot statistics) {
+        SimpleDateFormat time = new SimpleDateFormat("MMM d, yyyy HH:mm:ss");
+        String runTimes = statistics.getRunStarted() > 0
+            ? "Started " + time.format(new Date(statistics.getRunStarted())) + "<br>Ended " + time.format(new Date(statistics.getRunFinished()))
+            : "";
+        String slowest = statistics.getSlowestScenario() != null
+            ? "<br>Slowest: " + escape(statistics.getSlowestScenario()) + " (" + formatDuration(statistics.getSlowestScenarioMs()) + ")"
+            : "";
+        return "<div class=\"row " + STATISTICS_ROW_CLASS + "\">"
+            + countsCard("Features", statistics.getFeatures())
+            + countsCard("Scenarios", statistics.getScenarios())
+            + countsCard("Steps", statistics.getSteps())
+            + card("Duration", formatDuration(statistics.getWallMs()),
+                runTimes + "<br>Scenarios total " + formatDuration(statistics.getScenarioMs()) + slowest)
+            + "</div>";
+    }
+
+    private static String countsCard(String title, RunStatistics.Counts counts) {
+        return card(title, String.valueOf(counts.getTotal()),
+            "<b class=\"text-pass\">" + counts.getPassed() + "</b> passed, "
+                + "<b class=\"text-fail\">" + counts.getFailed() + "</b> failed,<br>"
+                + "<b>" + counts.getSkipped() + "</b> skipped, <b>" + counts.getOthers() + "</b> others");
+    }
+
+    private static String card(String title, String value, String details) {
+        return "<div class=\"col-md-3\"><div class=\"card\"><div class=\"card-body\">"
+            + "<p class=\"m-b-0\">" + title + "</p><h3>" + value + "</h3><small>" + details + "</small>"
+            + "</div></div></div>";
+    }
+
+    private static String formatDuration(long millis) {
+        long seconds = millis / 1000;
+        if (seconds < 60) {
+            return String.format("%.1f s", millis / 1000.0);
         }
+        return seconds >= 3600
+            ? String.format("%dh %02dm %02ds", seconds / 3600, seconds % 3600 / 60, seconds % 60)
+            : String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
     }
 
     private static String findLatestExtentReport() {
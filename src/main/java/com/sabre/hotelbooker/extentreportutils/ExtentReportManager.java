@@ -1,133 +1,370 @@
 package com.sabre.hotelbooker.extentreportutils;
 
 import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.aventstack.extentreports.reporter.configuration.ViewName;
 import com.sabre.hotelbooker.configreaderutils.ConfigReader;
 import com.sabre.hotelbooker.loggerutils.LogDirectoryManager;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.io.File;
 
 public class ExtentReportManager {
-    private static ExtentReports extent;
-    public static String reportDir;
+    private static volatile ExtentReports extent;
+    public static volatile String reportDir;
+    public static final String REPORT_FILE_NAME = "ExtentReport.html";
+    public static final String SHARDS_DIR = "shards";
 
-    public static ExtentReports getInstance() {
+    private static final int DEFAULT_FLUSH_INTERVAL_MS = 30000;
+    private static final int DEFAULT_FLUSH_EVERY_SCENARIOS = 20;
+    private static final int FINAL_FLUSH_WAIT_SECONDS = 60;
+
+    // Single background writer for coalesced flushes
+    private static final ScheduledThreadPoolExecutor flushWriter = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "extent-flush-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    static {
+        // Delayed flushes still queued at the final flush are dropped; the final flush covers them
+        flushWriter.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+    private static final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private static final AtomicBoolean finalFlushDone = new AtomicBoolean();
+    private static final AtomicInteger pendingFlushRequests = new AtomicInteger();
+    private static final AtomicLong totalFlushRequests = new AtomicLong();
+    private static final AtomicInteger renderCount = new AtomicInteger();
+    private static final AtomicLong renderTotalMs = new AtomicLong();
+    private static final AtomicLong renderMaxMs = new AtomicLong();
+
+    public static synchronized ExtentReports getInstance() {
         if (extent == null) {
             // Get environment from system property, default to DEV
             String environment = System.getProperty("env", "DEV").toUpperCase();
             
-            String date = new SimpleDateFormat("ddMMMyy").format(new Date()).toUpperCase();
-            String time = new SimpleDateFormat("HHmmss").format(new Date());
-            reportDir = "reports" + File.separator + date + File.separator + time;
+            String shard = getShardId();
+            reportDir = getRunDir() + (shard.isEmpty() ? "" : File.separator + SHARDS_DIR + File.separator + shard);
             new File(reportDir).mkdirs();
             
             // Initialize logging to the same directory as ExtentReports
             LogDirectoryManager.initializeLogging(reportDir);
             
-            String reportPath = reportDir + File.separator + "ExtentReport.html";
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            sparkReporter.config().setDocumentTitle("Hotel Booker Automation Report - " + environment + " Environment");
-            sparkReporter.config().setReportName("Test Execution Results - " + environment + " Environment - Tag Filtering Enabled");
-            
-            // Add custom CSS for better tag filtering appearance and environment indicator
-            sparkReporter.config().setCss(
-                ".env-indicator { position: absolute; top: 10px; right: 20px; background: " + getEnvironmentColor(environment) + "; color: white; padding: 8px 15px; border-radius: 20px; font-weight: bold; font-size: 14px; box-shadow: 0 2px 4px rgba(0,0,0,0.2); z-index: 1000; }" +
-                ".category-filters { margin: 15px 0; padding: 15px; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); border-radius: 8px; box-shadow: 0 4px 6px rgba(0,0,0,0.1); }" +
-                ".filter-title { color: white; font-weight: bold; margin-bottom: 10px; font-size: 16px; }" +
-                ".tag-filter-btn { margin: 3px; padding: 8px 12px; background: rgba(255,255,255,0.2); color: white; border: 2px solid rgba(255,255,255,0.3); border-radius: 20px; cursor: pointer; transition: all 0.3s ease; font-weight: 500; }" +
-                ".tag-filter-btn.active { background: #28a745; border-color: #28a745; box-shadow: 0 2px 4px rgba(40,167,69,0.3); }" +
-                ".tag-filter-btn:hover { background: rgba(255,255,255,0.3); transform: translateY(-1px); }" +
-                ".category-name { background: #007bff; color: white; padding: 2px 8px; border-radius: 12px; font-size: 11px; margin: 2px; display: inline-block; }" +
-                ".system-info .info-item { margin-bottom: 8px; padding: 5px 10px; background: #f8f9fa; border-left: 4px solid " + getEnvironmentColor(environment) + "; border-radius: 4px; }"
-            );
-            
-            // Add JavaScript for dynamic tag filtering and environment indicator
-            sparkReporter.config().setJs(
-                "$(document).ready(function() {" +
-                "  // Add environment indicator" +
-                "  $('body').prepend('<div class=\"env-indicator\">" + environment + " Environment</div>');" +
-                "  " +
-                "  setTimeout(function() {" +
-                "    var categories = [];" +
-                "    $('.category-name').each(function() {" +
-                "      var cat = $(this).text().trim();" +
-                "      if (categories.indexOf(cat) === -1 && cat !== '') categories.push(cat);" +
-                "    });" +
-                "    " +
-                "    if (categories.length > 0) {" +
-                "      var filterHtml = '<div class=\"category-filters\">';" +
-                "      filterHtml += '<div class=\"filter-title\">Filter Tests by Tags:</div>';" +
-                "      filterHtml += '<button class=\"tag-filter-btn active\" data-filter=\"all\">All Tests (' + $('.test-item').length + ')</button>';" +
-                "      categories.forEach(function(cat) {" +
-                "        var count = $('.test-item').filter(function() { return $(this).find(\".category-name:contains(\\\"\" + cat + \"\\\")\").length > 0; }).length;" +
-                "        filterHtml += '<button class=\"tag-filter-btn\" data-filter=\"' + cat + '\">@' + cat + ' (' + count + ')</button>';" +
-                "      });" +
-                "      filterHtml += '</div>';" +
-                "      $('.test-view .container-fluid').prepend(filterHtml);" +
-                "      " +
-                "      $('.tag-filter-btn').click(function() {" +
-                "        $('.tag-filter-btn').removeClass('active');" +
-                "        $(this).addClass('active');" +
-                "        var filter = $(this).data('filter');" +
-                "        if (filter === 'all') {" +
-                "          $('.test-item').show();" +
-                "        } else {" +
-                "          $('.test-item').hide();" +
-                "          $('.test-item').each(function() {" +
-                "            if ($(this).find('.category-name').filter(function() { return $(this).text().trim() === filter; }).length > 0) {" +
-                "              $(this).show();" +
-                "            }" +
-                "          });" +
-                "        }" +
-                "      });" +
-                "    }" +
-                "  }, 1000);" +
-                "});"
-            );
-            
-            // Set dashboard as default view with category view enabled
-            sparkReporter.viewConfigurer().viewOrder()
-                .as(new ViewName[] { ViewName.DASHBOARD, ViewName.TEST, ViewName.CATEGORY, ViewName.AUTHOR, ViewName.DEVICE, ViewName.EXCEPTION, ViewName.LOG })
-                .apply();
+            // Every report event also goes to the journal; without the live report it is the only record,
+            // and ReportShardMerger merges shards from their journals
+            if (!isLiveReport() || !shard.isEmpty() || ConfigReader.getBooleanProperty("resultJournal", true)) {
+                ResultJournal.open(reportDir, environment);
+            }
             extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
+            if (isLiveReport()) {
+                extent.attachReporter(createSparkReporter(reportDir + File.separator + REPORT_FILE_NAME, environment));
+            }
             
             // Add comprehensive system information including environment details
-            extent.setSystemInfo("Environment", environment);
-            extent.setSystemInfo("User", System.getProperty("user.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("Operating System", System.getProperty("os.name") + " " + System.getProperty("os.version"));
-            extent.setSystemInfo("Browser", "Playwright Chromium");
-            extent.setSystemInfo("Execution Date", new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date()));
+            setSystemInfo("Environment", environment);
+            setSystemInfo("User", System.getProperty("user.name"));
+            setSystemInfo("Java Version", System.getProperty("java.version"));
+            setSystemInfo("Operating System", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+            setSystemInfo("Browser", "Playwright Chromium");
+            setSystemInfo("Execution Date", new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(new Date()));
+            if (!shard.isEmpty()) {
+                setSystemInfo("Report Shard", shard);
+            }
             
             // Add environment-specific configuration
             try {
                 String hotelBookerURL = ConfigReader.getProperty("HotelBookerURL");
                 String browser = ConfigReader.getProperty("browserName");
                 if (hotelBookerURL != null) {
-                    extent.setSystemInfo("Hotel Booker URL", hotelBookerURL);
+                    setSystemInfo("Hotel Booker URL", hotelBookerURL);
                 }
                 if (browser != null) {
-                    extent.setSystemInfo("Configured Browser", browser.toUpperCase());
+                    setSystemInfo("Configured Browser", browser.toUpperCase());
                 }
             } catch (Exception e) {
-                extent.setSystemInfo("Configuration", "Unable to load environment properties: " + e.getMessage());
+                setSystemInfo("Configuration", "Unable to load environment properties: " + e.getMessage());
             }
             
             // Add Maven command information
             String tags = System.getProperty("cucumber.filter.tags");
             if (tags != null && !tags.trim().isEmpty()) {
-                extent.setSystemInfo("Executed Tags", tags);
+                setSystemInfo("Executed Tags", tags);
             }
         }
         return extent;
     }
+
+    /**
+     * Shard id of this JVM (reportShard, e.g. the Surefire fork number or CI job index), empty when the run is not sharded.
+     * Each shard writes a partial report to runDir/shards/&lt;shard&gt;; ReportShardMerger combines them.
+     */
+    public static String getShardId() {
+        return ConfigReader.getProperty("reportShard", "").replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * reports/&lt;date&gt;/&lt;time&gt; of this run. Shards running in separate JVMs agree on it through reportRunId
+     * (&lt;date&gt;/&lt;time&gt; or any other id shared by all shards); without it each JVM takes its own start time.
+     */
+    private static String getRunDir() {
+        String runId = ConfigReader.getProperty("reportRunId", "");
+        if (!runId.isEmpty()) {
+            return "reports" + File.separator + runId.toUpperCase(Locale.ROOT).replace('/', File.separatorChar);
+        }
+        String date = new SimpleDateFormat("ddMMMyy").format(new Date()).toUpperCase();
+        String time = new SimpleDateFormat("HHmmss").format(new Date());
+        return "reports" + File.separator + date + File.separator + time;
+    }
+
+    /**
+     * Spark reporter with the report's theme, titles, CSS/JS and view order; also used by JournalReportRenderer
+     */
+    static ExtentSparkReporter createSparkReporter(String reportPath, String environment) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setDocumentTitle("Hotel Booker Automation Report - " + environment + " Environment");
+        sparkReporter.config().setReportName("Test Execution Results - " + environment + " Environment - Tag Filtering Enabled");
+        
+        // Add custom CSS for better tag filtering appearance and environment indicator
+        sparkReporter.config().setCss(
+            ".env-indicator { position: absolute; top: 10px; right: 20px; background: " + getEnvironmentColor(environment) + "; color: white; padding: 8px 15px; border-radius: 20px; font-weight: bold; font-size: 14px; box-shadow: 0 2px 4px rgba(0,0,0,0.2); z-index: 1000; }" +
+            ".category-filters { margin: 15px 0; padding: 15px; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); border-radius: 8px; box-shadow: 0 4px 6px rgba(0,0,0,0.1); }" +
+            ".filter-title { color: white; font-weight: bold; margin-bottom: 10px; font-size: 16px; }" +
+            ".tag-filter-btn { margin: 3px; padding: 8px 12px; background: rgba(255,255,255,0.2); color: white; border: 2px solid rgba(255,255,255,0.3); border-radius: 20px; cursor: pointer; transition: all 0.3s ease; font-weight: 500; }" +
+            ".tag-filter-btn.active { background: #28a745; border-color: #28a745; box-shadow: 0 2px 4px rgba(40,167,69,0.3); }" +
+            ".tag-filter-btn:hover { background: rgba(255,255,255,0.3); transform: translateY(-1px); }" +
+            ".category-name { background: #007bff; color: white; padding: 2px 8px; border-radius: 12px; font-size: 11px; margin: 2px; display: inline-block; }" +
+            ".system-info .info-item { margin-bottom: 8px; padding: 5px 10px; background: #f8f9fa; border-left: 4px solid " + getEnvironmentColor(environment) + "; border-radius: 4px; }"
+        );
+        
+        // Add JavaScript for dynamic tag filtering and environment indicator
+        sparkReporter.config().setJs(
+            "$(document).ready(function() {" +
+            "  // Add environment indicator" +
+            "  $('body').prepend('<div class=\"env-indicator\">" + environment + " Environment</div>');" +
+            "  " +
+            "  setTimeout(function() {" +
+            "    var categories = [];" +
+            "    $('.category-name').each(function() {" +
+            "      var cat = $(this).text().trim();" +
+            "      if (categories.indexOf(cat) === -1 && cat !== '') categories.push(cat);" +
+            "    });" +
+            "    " +
+            "    if (categories.length > 0) {" +
+            "      var filterHtml = '<div class=\"category-filters\">';" +
+            "      filterHtml += '<div class=\"filter-title\">Filter Tests by Tags:</div>';" +
+            "      filterHtml += '<button class=\"tag-filter-btn active\" data-filter=\"all\">All Tests (' + $('.test-item').length + ')</button>';" +
+            "      categories.forEach(function(cat) {" +
+            "        var count = $('.test-item').filter(function() { return $(this).find(\".category-name:contains(\\\"\" + cat + \"\\\")\").length > 0; }).length;" +
+            "        filterHtml += '<button class=\"tag-filter-btn\" data-filter=\"' + cat + '\">@' + cat + ' (' + count + ')</button>';" +
+            "      });" +
+            "      filterHtml += '</div>';" +
+            "      $('.test-view .container-fluid').prepend(filterHtml);" +
+            "      " +
+            "      $('.tag-filter-btn').click(function() {" +
+            "        $('.tag-filter-btn').removeClass('active');" +
+            "        $(this).addClass('active');" +
+            "        var filter = $(this).data('filter');" +
+            "        if (filter === 'all') {" +
+            "          $('.test-item').show();" +
+            "        } else {" +
+            "          $('.test-item').hide();" +
+            "          $('.test-item').each(function() {" +
+            "            if ($(this).find('.category-name').filter(function() { return $(this).text().trim() === filter; }).length > 0) {" +
+            "              $(this).show();" +
+            "            }" +
+            "          });" +
+            "        }" +
+            "      });" +
+            "    }" +
+            "  }, 1000);" +
+            "});"
+        );
+        
+        // Set dashboard as default view with category view enabled
+        sparkReporter.viewConfigurer().viewOrder()
+            .as(new ViewName[] { ViewName.DASHBOARD, ViewName.TEST, ViewName.CATEGORY, ViewName.AUTHOR, ViewName.DEVICE, ViewName.EXCEPTION, ViewName.LOG })
+            .apply();
+        return sparkReporter;
+    }
+
+    /**
+     * Whether the Extent model is built in memory during the run (liveExtentReport, default true).
+     * When off, only the result journal is written and the HTML is rendered from it at the final flush.
+     */
+    public static boolean isLiveReport() {
+        return ConfigReader.getBooleanProperty("liveExtentReport", true);
+    }
+
+    /**
+     * Add a line to the report's system info, in the live report and the journal
+     */
+    public static void setSystemInfo(String name, String value) {
+        ExtentReports reports = getInstance();
+        synchronized (reports) {
+            reports.setSystemInfo(name, value);
+        }
+        ResultJournal.systemInfo(name, value);
+    }
     
+    /**
+     * Create a top-level test. Serialized because the report-level test list is shared by all workers.
+     */
+    public static ExtentTest createTest(String name) {
+        ExtentReports reports = getInstance();
+        synchronized (reports) {
+            return reports.createTest(name);
+        }
+    }
+
+    /**
+     * Ask for the report to be written. Returns at once: the background writer coalesces requests and
+     * renders the Spark HTML after extentFlushEveryScenarios requests or extentFlushIntervalMs, whichever
+     * comes first, so scenario threads never wait for a render.
+     */
+    public static void requestFlush() {
+        if (extent == null || finalFlushDone.get() || !isLiveReport()) {
+            return;
+        }
+        int pending = pendingFlushRequests.incrementAndGet();
+        int everyScenarios = ConfigReader.getIntProperty("extentFlushEveryScenarios", DEFAULT_FLUSH_EVERY_SCENARIOS);
+        if (pending >= everyScenarios) {
+            scheduleFlush(0);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduleFlush(ConfigReader.getIntProperty("extentFlushIntervalMs", DEFAULT_FLUSH_INTERVAL_MS));
+        }
+    }
+
+    /**
+     * Flush the report now on the calling thread and stop the background writer. Only the first call
+     * renders (from Hooks.tearDownAll, or the shutdown hook when the run ends abnormally); later calls are no-ops.
+     * Without the live report, the HTML is rendered from the result journal here.
+     * @return true when this call rendered the report
+     */
+    public static boolean flush() {
+        if (extent == null || !finalFlushDone.compareAndSet(false, true)) {
+            return false;
+        }
+        flushWriter.shutdown();
+        try {
+            // Let a render already in progress finish before the final one
+            flushWriter.awaitTermination(FINAL_FLUSH_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (isLiveReport()) {
+            render();
+            ResultJournal.close();
+        } else {
+            renderFromJournal();
+        }
+        writeRunStatistics();
+        LoggerUtil.logInfo("Extent report rendering: {}", getFlushStats());
+        return true;
+    }
+
+    /**
+     * Render count, requests coalesced into those renders and the total time spent rendering
+     */
+    public static String getFlushStats() {
+        return String.format("%d renders for %d flush requests, total %.1f s, max %d ms",
+            renderCount.get(), totalFlushRequests.get(), renderTotalMs.get() / 1000.0, renderMaxMs.get());
+    }
+
+    public static long getRenderTotalMs() {
+        return renderTotalMs.get();
+    }
+
+    private static void scheduleFlush(long delayMs) {
+        try {
+            flushWriter.schedule(ExtentReportManager::backgroundFlush, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Final flush already started; it covers this request
+        }
+    }
+
+    private static void backgroundFlush() {
+        flushScheduled.set(false);
+        if (pendingFlushRequests.get() == 0 || finalFlushDone.get()) {
+            return;
+        }
+        try {
+            render();
+        } catch (RuntimeException e) {
+            // Scenario threads keep adding to the model while it renders; the next flush picks it up
+            LoggerUtil.logWarn("Background Extent report flush failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Render the Spark HTML. Serialized so two threads never render it at the same time.
+     */
+    private static void render() {
+        ExtentReports reports = extent;
+        if (reports == null) {
+            return;
+        }
+        totalFlushRequests.addAndGet(pendingFlushRequests.getAndSet(0));
+        long start = System.currentTimeMillis();
+        synchronized (reports) {
+            reports.flush();
+        }
+        recordRender(System.currentTimeMillis() - start);
+    }
+
+    private static void renderFromJournal() {
+        Path journal = ResultJournal.close();
+        if (journal == null) {
+            LoggerUtil.logWarn("No result journal to render the Extent report from");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        JournalReportRenderer.render(journal, Paths.get(reportDir, REPORT_FILE_NAME));
+        recordRender(System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Store the Cucumber run statistics next to the report and write them into its dashboard
+     */
+    private static void writeRunStatistics() {
+        RunStatistics.Snapshot statistics = RunStatistics.snapshot();
+        if (statistics.getScenarios().getTotal() == 0) {
+            // RunStatistics plugin not registered, or nothing ran
+            return;
+        }
+        Path report = Paths.get(reportDir, REPORT_FILE_NAME);
+        long start = System.currentTimeMillis();
+        try {
+            statistics.write(Paths.get(reportDir, RunStatistics.FILE_NAME));
+            if (Files.isRegularFile(report)) {
+                ExtentReportCleaner.rewriteDashboard(report, statistics);
+            }
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not write run statistics into {}: {}", report, e.getMessage());
+        }
+        LoggerUtil.logInfo("Run statistics: {} (written in {} ms)", statistics, System.currentTimeMillis() - start);
+    }
+
+    private static void recordRender(long elapsed) {
+        renderCount.incrementAndGet();
+        renderTotalMs.addAndGet(elapsed);
+        renderMaxMs.accumulateAndGet(elapsed, Math::max);
+    }
+
     /**
      * Get environment-specific color for UI elements
      */
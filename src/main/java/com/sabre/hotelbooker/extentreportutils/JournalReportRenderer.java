@@ -0,0 +1,203 @@
+package com.sabre.hotelbooker.extentreportutils;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the Extent/Spark HTML report from a result journal (see ResultJournal), replaying its events in order
+ * with their original timestamps. Used for the final report when liveExtentReport is off, and standalone to
+ * recover the report of a run that crashed - a truncated last line is skipped.
+ *
+ * Usage: JournalReportRenderer [journal.ndjson or report dir] [output html]
+ * Without arguments the most recent journal under reports/ is rendered next to it as ExtentReport.html.
+ */
+public class JournalReportRenderer {
+
+    public static void main(String[] args) {
+        Path journal = args.length > 0 ? Paths.get(args[0]) : findLatestJournal();
+        if (journal == null) {
+            System.err.println("No " + ResultJournal.FILE_NAME + " found in reports directory.");
+            return;
+        }
+        if (Files.isDirectory(journal)) {
+            journal = journal.resolve(ResultJournal.FILE_NAME);
+        }
+        Path output = args.length > 1 ? Paths.get(args[1]) : journal.resolveSibling(ExtentReportManager.REPORT_FILE_NAME);
+        int events = render(journal, output);
+        System.out.println("Rendered " + events + " journal events from " + journal + " to " + output);
+    }
+
+    /**
+     * Replay a journal into a new Spark report
+     * @return number of events replayed
+     */
+    public static int render(Path journal, Path output) {
+        Replay replay = new Replay(output);
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                JsonObject event;
+                try {
+                    event = JsonParser.parseString(line).getAsJsonObject();
+                } catch (RuntimeException e) {
+                    // Only the line being written when the JVM died can be cut short
+                    LoggerUtil.logWarn("Skipping unreadable line {} of result journal {}", lineNumber, journal);
+                    continue;
+                }
+                replay.apply(event);
+            }
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not read result journal {}: {}", journal, e.getMessage());
+        }
+        replay.finish();
+        return replay.events;
+    }
+
+    /**
+     * Report being rebuilt, with the tests created so far by journal id
+     */
+    private static class Replay {
+        private final Path output;
+        private final ExtentReports reports = new ExtentReports();
+        private final Map<String, ExtentTest> tests = new HashMap<>();
+        private final Map<String, String> parents = new HashMap<>();
+        private boolean reporterAttached;
+        private int events;
+
+        private Replay(Path output) {
+            this.output = output;
+        }
+
+        private void apply(JsonObject event) {
+            String type = text(event, "type");
+            Date timestamp = new Date(event.has("ts") ? event.get("ts").getAsLong() : System.currentTimeMillis());
+            if ("run".equals(type)) {
+                attachReporter(text(event, "env"));
+                events++;
+                return;
+            }
+            attachReporter(System.getProperty("env", "DEV").toUpperCase());
+            switch (type) {
+                case "test":
+                    startTest(text(event, "id"), text(event, "parent"), text(event, "name"), timestamp);
+                    break;
+                case "category":
+                    ExtentTest categorised = tests.get(text(event, "id"));
+                    if (categorised != null) {
+                        categorised.assignCategory(text(event, "name"));
+                    }
+                    break;
+                case "log":
+                    log(text(event, "id"), event, timestamp);
+                    break;
+                case "systemInfo":
+                    reports.setSystemInfo(text(event, "name"), text(event, "value"));
+                    break;
+                default:
+                    LoggerUtil.logDebug("Ignoring result journal event of type {}", type);
+                    return;
+            }
+            events++;
+        }
+
+        private void attachReporter(String environment) {
+            if (!reporterAttached) {
+                reporterAttached = true;
+                reports.attachReporter(ExtentReportManager.createSparkReporter(output.toString(), environment));
+            }
+        }
+
+        private void startTest(String id, String parentId, String name, Date timestamp) {
+            ExtentTest parent = parentId == null ? null : tests.get(parentId);
+            ExtentTest test = parent == null ? reports.createTest(name) : parent.createNode(name);
+            test.getModel().setStartTime(timestamp);
+            test.getModel().setEndTime(timestamp);
+            tests.put(id, test);
+            if (parent != null) {
+                parents.put(id, parentId);
+            }
+            // A feature merged from several shards starts with its earliest scenario
+            for (String node = parentId; node != null && tests.containsKey(node); node = parents.get(node)) {
+                Test model = tests.get(node).getModel();
+                if (model.getStartTime() == null || model.getStartTime().after(timestamp)) {
+                    model.setStartTime(timestamp);
+                }
+            }
+        }
+
+        private void log(String id, JsonObject event, Date timestamp) {
+            ExtentTest test = tests.get(id);
+            if (test == null) {
+                return;
+            }
+            Status status = Status.valueOf(text(event, "status").toUpperCase(Locale.ROOT));
+            if (event.has("error")) {
+                test.log(status, MarkupHelper.createCodeBlock(text(event, "error")));
+            } else {
+                test.log(status, text(event, "message"));
+            }
+            List<Log> logs = test.getModel().getLogs();
+            if (!logs.isEmpty()) {
+                logs.get(logs.size() - 1).setTimestamp(timestamp);
+            }
+            // A node's log extends the duration of every test above it
+            for (String node = id; node != null; node = parents.get(node)) {
+                Test model = tests.get(node).getModel();
+                if (model.getEndTime() == null || model.getEndTime().before(timestamp)) {
+                    model.setEndTime(timestamp);
+                }
+            }
+        }
+
+        private void finish() {
+            attachReporter(System.getProperty("env", "DEV").toUpperCase());
+            reports.flush();
+        }
+
+        private static String text(JsonObject event, String key) {
+            return event.has(key) && !event.get(key).isJsonNull() ? event.get(key).getAsString() : null;
+        }
+    }
+
+    private static Path findLatestJournal() {
+        File reportsDir = new File("reports");
+        if (!reportsDir.isDirectory()) {
+            return null;
+        }
+        File latest = null;
+        for (File dateDir : reportsDir.listFiles(File::isDirectory)) {
+            for (File timeDir : dateDir.listFiles(File::isDirectory)) {
+                File journal = new File(timeDir, ResultJournal.FILE_NAME);
+                if (journal.isFile() && (latest == null || journal.lastModified() > latest.lastModified())) {
+                    latest = journal;
+                }
+            }
+        }
+        return latest == null ? null : latest.toPath();
+    }
+}
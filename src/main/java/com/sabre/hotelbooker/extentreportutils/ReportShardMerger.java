@@ -0,0 +1,271 @@
+package com.sabre.hotelbooker.extentreportutils;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Merges the partial reports of a sharded run (runDir/shards/&lt;shard&gt;, see ExtentReportManager.getShardId)
+ * into one report in the run directory:
+ * <ul>
+ *   <li>journal.ndjson - the shard journals one after the other, node ids prefixed with the shard, and the
+ *       top-level tests of the same feature folded into one parent</li>
+ *   <li>ExtentReport.html - rendered from that journal, with the dashboard statistics of all shards</li>
+ *   <li>Screenshot/ - the shards' screenshots; names are content hashes, so a frame taken on several shards is kept once</li>
+ *   <li>logs/&lt;shard&gt;/ - each shard's logs</li>
+ * </ul>
+ * Every shard journal is streamed once and every file copied once, so the merge is linear in the partial sizes.
+ * System info that differs between shards is listed per shard.
+ *
+ * Usage: ReportShardMerger [run dir]
+ * Without arguments the most recent run under reports/ is merged when it has shards (Maven verify phase).
+ */
+public class ReportShardMerger {
+
+    private static final String SCREENSHOT_FOLDER = "Screenshot";
+    private static final String LOGS_FOLDER = "logs";
+
+    public static void main(String[] args) throws IOException {
+        Path runDir = args.length > 0 ? Paths.get(args[0]) : findLatestRun();
+        if (runDir == null || !Files.isDirectory(runDir.resolve(ExtentReportManager.SHARDS_DIR))) {
+            System.out.println("No sharded report run to merge.");
+            return;
+        }
+        System.out.println(merge(runDir));
+    }
+
+    /**
+     * Merge every shard of the run into the run directory
+     * @return one-line summary
+     */
+    public static String merge(Path runDir) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Path> shards = listShards(runDir.resolve(ExtentReportManager.SHARDS_DIR));
+        Path journal = runDir.resolve(ResultJournal.FILE_NAME);
+        Path journalTemp = runDir.resolve(ResultJournal.FILE_NAME + ".tmp");
+
+        MergedJournal merged = new MergedJournal();
+        List<RunStatistics.Snapshot> statistics = new ArrayList<>();
+        int screenshots = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(journalTemp, StandardCharsets.UTF_8)) {
+            for (Path shard : shards) {
+                String shardId = shard.getFileName().toString();
+                Path shardJournal = shard.resolve(ResultJournal.FILE_NAME);
+                if (Files.isRegularFile(shardJournal)) {
+                    merged.append(shardId, shardJournal, writer);
+                } else {
+                    LoggerUtil.logWarn("Report shard {} has no {}; its tests are missing from the merged report", shard, ResultJournal.FILE_NAME);
+                }
+                RunStatistics.Snapshot shardStatistics = RunStatistics.Snapshot.read(shard.resolve(RunStatistics.FILE_NAME));
+                if (shardStatistics != null) {
+                    statistics.add(shardStatistics);
+                }
+                screenshots += copyNew(shard.resolve(SCREENSHOT_FOLDER), runDir.resolve(SCREENSHOT_FOLDER));
+                copyNew(shard.resolve(LOGS_FOLDER), runDir.resolve(LOGS_FOLDER).resolve(shardId));
+            }
+            merged.writeSystemInfo(writer, shards.size());
+        }
+        replace(journalTemp, journal);
+
+        // Rendered to a temporary file so the previous merge stays readable until this one is complete
+        Path report = runDir.resolve(ExtentReportManager.REPORT_FILE_NAME);
+        Path reportTemp = runDir.resolve("merge-" + ExtentReportManager.REPORT_FILE_NAME);
+        JournalReportRenderer.render(journal, reportTemp);
+        if (!statistics.isEmpty()) {
+            RunStatistics.Snapshot mergedStatistics = RunStatistics.merge(statistics);
+            mergedStatistics.write(runDir.resolve(RunStatistics.FILE_NAME));
+            ExtentReportCleaner.rewriteDashboard(reportTemp, mergedStatistics);
+        }
+        replace(reportTemp, report);
+
+        return String.format("Merged %d report shards (%d events, %d features, %d screenshots) into %s in %d ms",
+            shards.size(), merged.events, merged.features.size(), screenshots, report, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Merged journal being written: shard node ids -> merged ids, and one merged id per feature name
+     */
+    private static class MergedJournal {
+        private final Map<String, String> features = new HashMap<>();
+        // System info name -> value per shard, written once at the end
+        private final Map<String, Map<String, String>> systemInfo = new LinkedHashMap<>();
+        private boolean runWritten;
+        private int events;
+
+        private void append(String shardId, Path journal, BufferedWriter writer) throws IOException {
+            // Ids are only unique within a shard
+            Map<String, String> ids = new HashMap<>();
+            int lineNumber = 0;
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    JsonObject event;
+                    try {
+                        event = JsonParser.parseString(line).getAsJsonObject();
+                    } catch (RuntimeException e) {
+                        // Last line of a shard that died mid-write
+                        LoggerUtil.logWarn("Skipping unreadable line {} of result journal {}", lineNumber, journal);
+                        continue;
+                    }
+                    if (apply(shardId, ids, event)) {
+                        writer.write(event.toString());
+                        writer.write('\n');
+                        events++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Rewrite the event for the merged journal
+         * @return false when it is dropped (repeated run line, feature already started, system info kept for the end)
+         */
+        private boolean apply(String shardId, Map<String, String> ids, JsonObject event) {
+            String type = event.has("type") ? event.get("type").getAsString() : "";
+            switch (type) {
+                case "run":
+                    if (runWritten) {
+                        return false;
+                    }
+                    runWritten = true;
+                    return true;
+                case "systemInfo":
+                    systemInfo.computeIfAbsent(event.get("name").getAsString(), name -> new LinkedHashMap<>())
+                        .put(shardId, event.has("value") && !event.get("value").isJsonNull() ? event.get("value").getAsString() : "");
+                    return false;
+                case "test":
+                    String id = event.get("id").getAsString();
+                    if (!event.has("parent")) {
+                        String name = event.get("name").getAsString();
+                        String featureId = features.get(name);
+                        if (featureId != null) {
+                            ids.put(id, featureId);
+                            return false;
+                        }
+                        featureId = shardId + ":" + id;
+                        features.put(name, featureId);
+                        ids.put(id, featureId);
+                        event.addProperty("id", featureId);
+                        return true;
+                    }
+                    ids.put(id, shardId + ":" + id);
+                    event.addProperty("id", ids.get(id));
+                    event.addProperty("parent", ids.getOrDefault(event.get("parent").getAsString(), shardId + ":" + event.get("parent").getAsString()));
+                    return true;
+                default:
+                    if (event.has("id")) {
+                        String shardNode = event.get("id").getAsString();
+                        event.addProperty("id", ids.getOrDefault(shardNode, shardId + ":" + shardNode));
+                    }
+                    return true;
+            }
+        }
+
+        private void writeSystemInfo(BufferedWriter writer, int shardCount) throws IOException {
+            for (Map.Entry<String, Map<String, String>> info : systemInfo.entrySet()) {
+                Map<String, String> values = info.getValue();
+                if (values.values().stream().distinct().count() == 1) {
+                    writeSystemInfo(writer, info.getKey(), values.values().iterator().next());
+                } else {
+                    for (Map.Entry<String, String> shardValue : values.entrySet()) {
+                        writeSystemInfo(writer, info.getKey() + " [" + shardValue.getKey() + "]", shardValue.getValue());
+                    }
+                }
+            }
+            writeSystemInfo(writer, "Merged Shards", String.valueOf(shardCount));
+        }
+
+        private void writeSystemInfo(BufferedWriter writer, String name, String value) throws IOException {
+            JsonObject line = new JsonObject();
+            line.addProperty("type", "systemInfo");
+            line.addProperty("ts", System.currentTimeMillis());
+            line.addProperty("name", name);
+            line.addProperty("value", value);
+            writer.write(line.toString());
+            writer.write('\n');
+            events++;
+        }
+    }
+
+    private static List<Path> listShards(Path shardsDir) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(shardsDir, Files::isDirectory)) {
+            entries.forEach(shards::add);
+        }
+        shards.sort(null);
+        return shards;
+    }
+
+    /**
+     * Copy the files under source into target, skipping files that already exist there
+     * @return number of files copied
+     */
+    private static int copyNew(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return 0;
+        }
+        int copied = 0;
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(source)) {
+            walk.filter(Files::isRegularFile).forEach(files::add);
+        }
+        for (Path file : files) {
+            Path destination = target.resolve(source.relativize(file).toString());
+            Files.createDirectories(destination.getParent());
+            try {
+                Files.copy(file, destination);
+                copied++;
+            } catch (FileAlreadyExistsException e) {
+                // Same content hash (screenshots) or already merged by an earlier run of the merge
+            }
+        }
+        return copied;
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Path findLatestRun() {
+        File reportsDir = new File("reports");
+        if (!reportsDir.isDirectory()) {
+            return null;
+        }
+        File latest = null;
+        for (File dateDir : reportsDir.listFiles(File::isDirectory)) {
+            for (File timeDir : dateDir.listFiles(File::isDirectory)) {
+                if (latest == null || timeDir.lastModified() > latest.lastModified()) {
+                    latest = timeDir;
+                }
+            }
+        }
+        return latest == null ? null : latest.toPath();
+    }
+}
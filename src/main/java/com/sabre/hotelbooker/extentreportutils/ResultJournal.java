@@ -0,0 +1,202 @@
+package com.sabre.hotelbooker.extentreportutils;
+
+import com.aventstack.extentreports.Status;
+import com.google.gson.JsonObject;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only NDJSON journal of everything the run reports: tests and nodes, categories, logs, errors and
+ * system info, one JSON object per line in reportDir/journal.ndjson, written as it happens.
+ * Each line is handed to the OS as soon as it is written, so a JVM crash loses at most the line in progress;
+ * JournalReportRenderer builds the Extent/Spark HTML from the journal after the run, or from what a
+ * crashed run left behind.
+ *
+ * Line types (all carry "type" and "ts", epoch ms):
+ * <ul>
+ *   <li>run - {@code env}, first line of the journal</li>
+ *   <li>test - {@code id, name, parent} (parent absent for top-level tests)</li>
+ *   <li>category - {@code id, name}</li>
+ *   <li>log - {@code id, status} (pass, fail, skip, warning, info) and {@code message} or {@code error} (stack trace)</li>
+ *   <li>systemInfo - {@code name, value}</li>
+ * </ul>
+ */
+public class ResultJournal {
+
+    public static final String FILE_NAME = "journal.ndjson";
+
+    private static final AtomicLong nextId = new AtomicLong();
+    // Node the current scenario thread logs to (set by Hooks), used by logCurrent
+    private static final ThreadLocal<String> currentNode = new ThreadLocal<>();
+    private static volatile Writer writer;
+    private static volatile Path journalFile;
+
+    private ResultJournal() {
+    }
+
+    /**
+     * Start the journal in the report directory; called once from ExtentReportManager.getInstance()
+     */
+    static synchronized void open(String reportDir, String environment) {
+        if (writer != null) {
+            return;
+        }
+        Path file = Paths.get(reportDir, FILE_NAME);
+        try {
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            journalFile = file;
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not open result journal {}: {}", file, e.getMessage());
+            return;
+        }
+        JsonObject run = event("run");
+        run.addProperty("env", environment);
+        append(run);
+    }
+
+    public static boolean isEnabled() {
+        return writer != null;
+    }
+
+    public static Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Record a new test (parentId null) or node
+     * @return id to log against, or null when the journal is off
+     */
+    public static String startTest(String parentId, String name) {
+        if (writer == null) {
+            return null;
+        }
+        String id = "n" + nextId.incrementAndGet();
+        JsonObject test = event("test");
+        test.addProperty("id", id);
+        test.addProperty("name", name);
+        if (parentId != null) {
+            test.addProperty("parent", parentId);
+        }
+        append(test);
+        return id;
+    }
+
+    public static void assignCategory(String id, String category) {
+        if (writer == null || id == null) {
+            return;
+        }
+        JsonObject line = event("category");
+        line.addProperty("id", id);
+        line.addProperty("name", category);
+        append(line);
+    }
+
+    public static void log(String id, Status status, String message) {
+        if (writer == null || id == null) {
+            return;
+        }
+        JsonObject line = event("log");
+        line.addProperty("id", id);
+        line.addProperty("status", status.name().toLowerCase(Locale.ROOT));
+        line.addProperty("message", message);
+        append(line);
+    }
+
+    /**
+     * Record a failure with its stack trace
+     */
+    public static void logError(String id, Throwable error) {
+        if (writer == null || id == null) {
+            return;
+        }
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        JsonObject line = event("log");
+        line.addProperty("id", id);
+        line.addProperty("status", Status.FAIL.name().toLowerCase(Locale.ROOT));
+        line.addProperty("error", trace.toString());
+        append(line);
+    }
+
+    public static void systemInfo(String name, String value) {
+        if (writer == null) {
+            return;
+        }
+        JsonObject line = event("systemInfo");
+        line.addProperty("name", name);
+        line.addProperty("value", value);
+        append(line);
+    }
+
+    public static void setCurrentNode(String id) {
+        currentNode.set(id);
+    }
+
+    public static String getCurrentNode() {
+        return currentNode.get();
+    }
+
+    public static void clearCurrentNode() {
+        currentNode.remove();
+    }
+
+    /**
+     * Log to the node of the current scenario thread (no-op outside a scenario)
+     */
+    public static void logCurrent(Status status, String message) {
+        log(currentNode.get(), status, message);
+    }
+
+    /**
+     * Close the journal; later events are dropped
+     * @return the journal file, or null when there was none
+     */
+    static synchronized Path close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LoggerUtil.logWarn("Could not close result journal {}: {}", journalFile, e.getMessage());
+            }
+            writer = null;
+        }
+        return journalFile;
+    }
+
+    private static JsonObject event(String type) {
+        JsonObject event = new JsonObject();
+        event.addProperty("type", type);
+        event.addProperty("ts", System.currentTimeMillis());
+        return event;
+    }
+
+    private static synchronized void append(JsonObject event) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(event.toString());
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Result journal {} is no longer written: {}", journalFile, e.getMessage());
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.sabre.hotelbooker.extentreportutils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dashboard statistics counted from Cucumber events while the run goes: features, scenarios and steps by
+ * outcome (passed, failed, skipped, others = pending/undefined/ambiguous/unused) plus durations.
+ * Register as a Cucumber plugin; the counters are JVM-wide so ExtentReportManager can write them into
+ * the report at the final flush (see ExtentReportCleaner) and next to it as run-statistics.json.
+ *
+ * A feature counts as failed when any of its scenarios failed, as skipped when all of them were skipped,
+ * otherwise as others when any scenario ended pending/undefined, otherwise as passed.
+ */
+public class RunStatistics implements ConcurrentEventListener {
+
+    public static final String FILE_NAME = "run-statistics.json";
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Outcome buckets, ordered so the highest one among a feature's scenarios is the feature outcome
+    private static final int SKIPPED = 0;
+    private static final int PASSED = 1;
+    private static final int OTHERS = 2;
+    private static final int FAILED = 3;
+    private static final String[] OUTCOME_NAMES = {"skipped", "passed", "others", "failed"};
+
+    private static final Map<URI, Integer> featureOutcomes = new ConcurrentHashMap<>();
+    private static final AtomicIntegerArray scenarios = new AtomicIntegerArray(4);
+    private static final AtomicIntegerArray steps = new AtomicIntegerArray(4);
+    private static final AtomicLong scenarioMs = new AtomicLong();
+    private static final AtomicLong stepMs = new AtomicLong();
+    private static final AtomicLong runStarted = new AtomicLong();
+    private static final AtomicLong runFinished = new AtomicLong();
+    private static volatile String slowestScenario;
+    private static volatile long slowestScenarioMs = -1;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> runStarted.compareAndSet(0, event.getInstant().toEpochMilli()));
+        publisher.registerHandlerFor(TestStepFinished.class, RunStatistics::handleStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, RunStatistics::handleTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> runFinished.set(event.getInstant().toEpochMilli()));
+    }
+
+    private static void handleStepFinished(TestStepFinished event) {
+        // Hooks are not steps of the feature
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            steps.incrementAndGet(bucket(event.getResult().getStatus()));
+            stepMs.addAndGet(event.getResult().getDuration().toMillis());
+        }
+    }
+
+    private static void handleTestCaseFinished(TestCaseFinished event) {
+        int outcome = bucket(event.getResult().getStatus());
+        long durationMs = event.getResult().getDuration().toMillis();
+        scenarios.incrementAndGet(outcome);
+        scenarioMs.addAndGet(durationMs);
+        featureOutcomes.merge(event.getTestCase().getUri(), outcome, Math::max);
+        synchronized (RunStatistics.class) {
+            if (durationMs > slowestScenarioMs) {
+                slowestScenarioMs = durationMs;
+                slowestScenario = event.getTestCase().getName();
+            }
+        }
+    }
+
+    private static int bucket(Status status) {
+        switch (status) {
+            case PASSED:
+                return PASSED;
+            case FAILED:
+                return FAILED;
+            case SKIPPED:
+                return SKIPPED;
+            default:
+                return OTHERS;
+        }
+    }
+
+    /**
+     * Counts so far
+     */
+    public static Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        featureOutcomes.forEach((uri, outcome) -> snapshot.featureOutcomes.put(uri.toString(), OUTCOME_NAMES[outcome]));
+        snapshot.countFeatures();
+        snapshot.scenarios.addAll(scenarios);
+        snapshot.steps.addAll(steps);
+        snapshot.scenarioMs = scenarioMs.get();
+        snapshot.stepMs = stepMs.get();
+        snapshot.runStarted = runStarted.get();
+        // Before TestRunFinished (final flush from @AfterAll) the run is still going
+        snapshot.runFinished = runFinished.get() > 0 ? runFinished.get() : System.currentTimeMillis();
+        snapshot.slowestScenario = slowestScenario;
+        snapshot.slowestScenarioMs = Math.max(0, slowestScenarioMs);
+        return snapshot;
+    }
+
+    /**
+     * Combine the statistics of report shards (see ReportShardMerger): counts and durations add up, a feature
+     * run on several shards counts once with its worst outcome, and the run spans the earliest start to the latest end
+     */
+    public static Snapshot merge(List<Snapshot> shards) {
+        Snapshot merged = new Snapshot();
+        for (Snapshot shard : shards) {
+            shard.featureOutcomes.forEach((uri, outcome) -> merged.featureOutcomes.merge(uri, outcome,
+                (first, second) -> outcomeOf(first) >= outcomeOf(second) ? first : second));
+            merged.scenarios.addCounts(shard.scenarios);
+            merged.steps.addCounts(shard.steps);
+            merged.scenarioMs += shard.scenarioMs;
+            merged.stepMs += shard.stepMs;
+            if (shard.runStarted > 0 && (merged.runStarted == 0 || shard.runStarted < merged.runStarted)) {
+                merged.runStarted = shard.runStarted;
+            }
+            merged.runFinished = Math.max(merged.runFinished, shard.runFinished);
+            if (shard.slowestScenario != null && shard.slowestScenarioMs > merged.slowestScenarioMs) {
+                merged.slowestScenario = shard.slowestScenario;
+                merged.slowestScenarioMs = shard.slowestScenarioMs;
+            }
+        }
+        merged.countFeatures();
+        return merged;
+    }
+
+    private static int outcomeOf(String name) {
+        return Math.max(0, Arrays.asList(OUTCOME_NAMES).indexOf(name));
+    }
+
+    /**
+     * Outcome counts of one level (features, scenarios or steps)
+     */
+    public static class Counts {
+        private int passed;
+        private int failed;
+        private int skipped;
+        private int others;
+
+        private void add(int outcome) {
+            addCount(outcome, 1);
+        }
+
+        private void addAll(AtomicIntegerArray counts) {
+            for (int outcome = 0; outcome < counts.length(); outcome++) {
+                addCount(outcome, counts.get(outcome));
+            }
+        }
+
+        private void addCounts(Counts other) {
+            passed += other.passed;
+            failed += other.failed;
+            skipped += other.skipped;
+            others += other.others;
+        }
+
+        private void addCount(int outcome, int count) {
+            switch (outcome) {
+                case PASSED:
+                    passed += count;
+                    break;
+                case FAILED:
+                    failed += count;
+                    break;
+                case SKIPPED:
+                    skipped += count;
+                    break;
+                default:
+                    others += count;
+            }
+        }
+
+        public int getPassed() {
+            return passed;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getOthers() {
+            return others;
+        }
+
+        public int getTotal() {
+            return passed + failed + skipped + others;
+        }
+    }
+
+    /**
+     * Point-in-time copy of the statistics, stored as run-statistics.json
+     */
+    public static class Snapshot {
+        // Feature URI -> outcome name, so shards that ran parts of the same feature can be merged
+        private final Map<String, String> featureOutcomes = new TreeMap<>();
+        private final Counts features = new Counts();
+        private final Counts scenarios = new Counts();
+        private final Counts steps = new Counts();
+        private long scenarioMs;
+        private long stepMs;
+        private long runStarted;
+        private long runFinished;
+        private String slowestScenario;
+        private long slowestScenarioMs;
+
+        private void countFeatures() {
+            for (String outcome : featureOutcomes.values()) {
+                features.add(outcomeOf(outcome));
+            }
+        }
+
+        public Counts getFeatures() {
+            return features;
+        }
+
+        public Counts getScenarios() {
+            return scenarios;
+        }
+
+        public Counts getSteps() {
+            return steps;
+        }
+
+        /**
+         * Sum of the scenario durations (more than the wall time when scenarios run in parallel)
+         */
+        public long getScenarioMs() {
+            return scenarioMs;
+        }
+
+        public long getStepMs() {
+            return stepMs;
+        }
+
+        /**
+         * Epoch ms of TestRunStarted, 0 when the event was not seen
+         */
+        public long getRunStarted() {
+            return runStarted;
+        }
+
+        public long getRunFinished() {
+            return runFinished;
+        }
+
+        public long getWallMs() {
+            return runStarted > 0 ? Math.max(0, runFinished - runStarted) : 0;
+        }
+
+        public String getSlowestScenario() {
+            return slowestScenario;
+        }
+
+        public long getSlowestScenarioMs() {
+            return slowestScenarioMs;
+        }
+
+        public void write(Path file) throws IOException {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(this, writer);
+            }
+        }
+
+        /**
+         * Read run-statistics.json, or null when it is missing or unreadable
+         */
+        public static Snapshot read(Path file) {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return GSON.fromJson(reader, Snapshot.class);
+            } catch (IOException | RuntimeException e) {
+                LoggerUtil.logWarn("Could not read run statistics {}: {}", file, e.getMessage());
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d features (%d failed), %d scenarios (%d failed, %d skipped), %d steps (%d failed), wall %.1f s",
+                features.getTotal(), features.getFailed(), scenarios.getTotal(), scenarios.getFailed(), scenarios.getSkipped(),
+                steps.getTotal(), steps.getFailed(), getWallMs() / 1000.0);
+        }
+    }
+}
@@ -14,16 +14,16 @@ import java.util.Date;
  */
 public class LogDirectoryManager {
     
-    private static String currentLogDirectory;
-    private static FileWriter testExecutionLogger;
-    private static FileWriter pageActionsLogger;
-    private static FileWriter errorLogger;
+    private static volatile String currentLogDirectory;
+    private static volatile FileWriter testExecutionLogger;
+    private static volatile FileWriter pageActionsLogger;
+    private static volatile FileWriter errorLogger;
     
     /**
      * Set the log directory dynamically and create log files
      * This should be called when the report directory is created
      */
-    public static void setLogDirectory(String reportDirectory) {
+    public static synchronized void setLogDirectory(String reportDirectory) {
         // Place all logs in a 'logs' subfolder inside the report directory
         String logsDir = reportDirectory + File.separator + "logs";
         currentLogDirectory = logsDir;
@@ -84,12 +84,15 @@ public class LogDirectoryManager {
      */
     private static void writeToLogFile(FileWriter writer, String message) {
         if (writer != null) {
-            try {
-                String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date());
-                writer.write(timestamp + " - " + message + "\n");
-                writer.flush();
-            } catch (IOException e) {
-                System.err.println("Failed to write to log file: " + e.getMessage());
+            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date());
+            // One writer is shared by all worker threads - keep each line whole
+            synchronized (writer) {
+                try {
+                    writer.write(timestamp + " - " + message + "\n");
+                    writer.flush();
+                } catch (IOException e) {
+                    System.err.println("Failed to write to log file: " + e.getMessage());
+                }
             }
         }
     }
@@ -104,7 +107,7 @@ public class LogDirectoryManager {
     /**
      * Create a default log directory if none has been set
      */
-    public static String createDefaultLogDirectory() {
+    public static synchronized String createDefaultLogDirectory() {
         if (currentLogDirectory == null) {
             String date = new SimpleDateFormat("ddMMMyy").format(new Date()).toUpperCase();
             String time = new SimpleDateFormat("HHmmss").format(new Date());
@@ -137,7 +140,7 @@ public class LogDirectoryManager {
     /**
      * Close all log files
      */
-    public static void closeLogFiles() {
+    public static synchronized void closeLogFiles() {
         try {
             if (testExecutionLogger != null) {
                 testExecutionLogger.write("=== TEST EXECUTION LOG ENDED ===\n");
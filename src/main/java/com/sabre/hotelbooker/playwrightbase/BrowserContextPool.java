@@ -0,0 +1,132 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.LoadState;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool of ready BrowserContexts already navigated to the HotelBooker login page.
+ *
+ * Playwright objects are bound to the thread that created them, so each worker owns its own pool on its
+ * shared browser. fill() only waits for the navigation to commit; the browser finishes loading the page
+ * (JS/CSS included) while the next scenario runs. Leased contexts are closed after the scenario and never
+ * returned to the pool.
+ */
+public class BrowserContextPool {
+
+    private static final int LOAD_TIMEOUT = 30000;
+
+    // Pool statistics across all workers
+    private static final AtomicInteger hits = new AtomicInteger(0);
+    private static final AtomicInteger misses = new AtomicInteger(0);
+    private static final AtomicInteger discarded = new AtomicInteger(0);
+    private static final AtomicLong hitWaitMillis = new AtomicLong(0);
+
+    private final Deque<PooledContext> ready = new ArrayDeque<>();
+    private final int size;
+    private final Supplier<PooledContext> factory;
+
+    /**
+     * A context/page pair and the state it was created with
+     */
+    public static class PooledContext {
+        public final BrowserContext context;
+        public final Page page;
+        public final boolean sessionSeeded;
+        public final boolean prewarmed;
+
+        public PooledContext(BrowserContext context, Page page, boolean sessionSeeded, boolean prewarmed) {
+            this.context = context;
+            this.page = page;
+            this.sessionSeeded = sessionSeeded;
+            this.prewarmed = prewarmed;
+        }
+    }
+
+    public BrowserContextPool(int size, Supplier<PooledContext> factory) {
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Take a ready context, waiting for its login page to finish loading. Returns null on a miss.
+     */
+    public PooledContext lease() {
+        long start = System.currentTimeMillis();
+        PooledContext entry;
+        while ((entry = ready.pollFirst()) != null) {
+            // A context seeded before the login cache changed would start in the wrong session state
+            boolean stale = entry.page.isClosed() || entry.sessionSeeded != (LoginSessionCache.getCachedState() != null);
+            if (!stale) {
+                try {
+                    entry.page.waitForLoadState(LoadState.LOAD, new Page.WaitForLoadStateOptions().setTimeout(LOAD_TIMEOUT));
+                    break;
+                } catch (Exception e) {
+                    LoggerUtil.logWarn("Discarding pooled context that failed to load: {}", e.getMessage());
+                }
+            }
+            discard(entry);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        long waited = System.currentTimeMillis() - start;
+        hits.incrementAndGet();
+        hitWaitMillis.addAndGet(waited);
+        LoggerUtil.logPerformance("Context pool hit (wait for warm page)", waited);
+        return entry;
+    }
+
+    /**
+     * Top the pool up to its configured size. Called between scenarios.
+     */
+    public void fill() {
+        while (ready.size() < size) {
+            try {
+                ready.addLast(factory.get());
+            } catch (Exception e) {
+                LoggerUtil.logWarn("Failed to pre-warm browser context: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Close all idle contexts
+     */
+    public void close() {
+        PooledContext entry;
+        while ((entry = ready.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    private void discard(PooledContext entry) {
+        discarded.incrementAndGet();
+        try {
+            entry.context.close();
+        } catch (Exception e) {
+            // Context already gone with its browser
+        }
+    }
+
+    /**
+     * Hit/miss and wait statistics, used to size contextPoolSize
+     */
+    public static String getStatsSummary() {
+        int hitCount = hits.get();
+        int missCount = misses.get();
+        int total = hitCount + missCount;
+        long avgWait = hitCount > 0 ? hitWaitMillis.get() / hitCount : 0;
+        return String.format("hits=%d, misses=%d (hit rate %d%%), discarded=%d, avg wait on hit=%d ms, total wait=%d ms",
+            hitCount, missCount, total > 0 ? hitCount * 100 / total : 0, discarded.get(), avgWait, hitWaitMillis.get());
+    }
+}
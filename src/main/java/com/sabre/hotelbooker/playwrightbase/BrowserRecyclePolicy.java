@@ -0,0 +1,138 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.microsoft.playwright.Playwright;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Restarts a worker's long-lived browser (browserLifecycle=worker) before the next scenario when any limit
+ * is reached:
+ * <ul>
+ *   <li>browserRecycleAfterScenarios - scenarios run on the browser</li>
+ *   <li>browserRecycleAfterMinutes - wall-clock age of the browser</li>
+ *   <li>browserRecycleRssMB - resident memory of the browser processes, read from /proc (Linux only)</li>
+ * </ul>
+ * 0 disables a limit. The check runs only in initialize(), so a browser is never recycled mid-scenario.
+ *
+ * Playwright does not expose process ids, so the driver process is identified as the JVM child that
+ * appears while Playwright.create() runs; the browser processes are that driver's descendants.
+ */
+public class BrowserRecyclePolicy {
+
+    private static final Object CREATE_LOCK = new Object();
+
+    // Browser currently owned by this worker thread
+    private static final ThreadLocal<WorkerBrowser> current = new ThreadLocal<>();
+    private static final Queue<String> recycleEvents = new ConcurrentLinkedQueue<>();
+
+    private static final class WorkerBrowser {
+        private final long launchedAt = System.currentTimeMillis();
+        private final long driverPid;
+        private int scenarios;
+
+        private WorkerBrowser(long driverPid) {
+            this.driverPid = driverPid;
+        }
+    }
+
+    /**
+     * Create a Playwright driver for this worker and start tracking its age, scenario count and memory
+     */
+    public static Playwright createPlaywright() {
+        synchronized (CREATE_LOCK) {
+            Set<Long> before = childPids();
+            Playwright created = Playwright.create();
+            long driverPid = childPids().stream().filter(pid -> !before.contains(pid)).findFirst().orElse(-1L);
+            current.set(new WorkerBrowser(driverPid));
+            return created;
+        }
+    }
+
+    /**
+     * Count a scenario against the current browser
+     */
+    public static void scenarioStarted() {
+        WorkerBrowser browser = current.get();
+        if (browser != null) browser.scenarios++;
+    }
+
+    /**
+     * Reason the worker's browser should be restarted before the next scenario, or null to keep it
+     */
+    public static String getRecycleReason() {
+        WorkerBrowser browser = current.get();
+        if (browser == null) return null;
+        int maxScenarios = ConfigReader.getIntProperty("browserRecycleAfterScenarios", 0);
+        if (maxScenarios > 0 && browser.scenarios >= maxScenarios) {
+            return String.format("scenario count %d reached limit %d", browser.scenarios, maxScenarios);
+        }
+        int maxMinutes = ConfigReader.getIntProperty("browserRecycleAfterMinutes", 0);
+        long ageMinutes = (System.currentTimeMillis() - browser.launchedAt) / 60000;
+        if (maxMinutes > 0 && ageMinutes >= maxMinutes) {
+            return String.format("age %d min reached limit %d min after %d scenarios", ageMinutes, maxMinutes, browser.scenarios);
+        }
+        int maxRssMb = ConfigReader.getIntProperty("browserRecycleRssMB", 0);
+        if (maxRssMb > 0) {
+            long rssMb = getBrowserRssKb(browser) / 1024;
+            if (rssMb >= maxRssMb) {
+                return String.format("browser RSS %d MB exceeded limit %d MB after %d scenarios", rssMb, maxRssMb, browser.scenarios);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record a recycle for the run summary
+     */
+    public static void recordRecycle(String reason) {
+        String event = Thread.currentThread().getName() + ": " + reason;
+        recycleEvents.add(event);
+        LoggerUtil.logInfo("Recycling worker browser - {}", event);
+    }
+
+    public static List<String> getRecycleEvents() {
+        return new ArrayList<>(recycleEvents);
+    }
+
+    public static String getSummary() {
+        List<String> events = getRecycleEvents();
+        return events.isEmpty() ? "no browser recycles" : events.size() + " recycle(s): " + String.join("; ", events);
+    }
+
+    /**
+     * Resident memory of the browser processes under this worker's driver, -1 when unavailable
+     */
+    private static long getBrowserRssKb(WorkerBrowser browser) {
+        if (browser.driverPid < 0) return -1;
+        return ProcessHandle.of(browser.driverPid)
+            .map(driver -> driver.descendants().mapToLong(process -> readRssKb(process.pid())).filter(kb -> kb > 0).sum())
+            .orElse(-1L);
+    }
+
+    private static long readRssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process exited or /proc is not available
+        }
+        return -1;
+    }
+
+    private static Set<Long> childPids() {
+        return ProcessHandle.current().children().map(ProcessHandle::pid).collect(Collectors.toSet());
+    }
+}
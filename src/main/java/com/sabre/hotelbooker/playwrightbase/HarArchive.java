@@ -0,0 +1,355 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.HarContentPolicy;
+import com.microsoft.playwright.options.HarNotFound;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * HAR record-and-replay for a scenario's HotelBooker traffic, selected with harMode:
+ * <ul>
+ *   <li>live - normal run against the env URL (default)</li>
+ *   <li>record - the scenario's context records everything to a HAR with embedded bodies</li>
+ *   <li>replay - requests are served from the HAR; nothing reaches the network</li>
+ * </ul>
+ * Archives are stored per feature: &lt;harDir&gt;/&lt;feature&gt;/&lt;scenario&gt;_L&lt;line&gt;.har.
+ * A recorded archive is scrubbed once its context has closed. Form fields matching harScrubbedFormFields
+ * (the password by default), cookie and authorization request headers, and set-cookie values are replaced
+ * with a placeholder, so archives carry no credentials. A recording that cannot be scrubbed is deleted.
+ *
+ * Replay first tries routeFromHAR (exact match). ASP.NET post-backs carry a __VIEWSTATE that changes
+ * between runs, so requests it cannot match fall back to a lookup on method + URL + form fields with the
+ * harIgnoredFormFields removed. Repeated identical requests are answered in recorded order. Document and
+ * XHR requests missing from the archive are aborted and reported as a scenario failure by the hooks.
+ */
+public class HarArchive {
+
+    public static final String LIVE = "live";
+    public static final String RECORD = "record";
+    public static final String REPLAY = "replay";
+
+    // Outside the source tree and git-ignored: archives hold whole responses of the environment
+    private static final String DEFAULT_HAR_DIR = "har-archives";
+    private static final String DEFAULT_SCRUBBED_FIELDS = "(?i)password";
+    private static final String SCRUBBED = "scrubbed";
+    private static final Set<String> SCRUBBED_REQUEST_HEADERS = new HashSet<>(Arrays.asList("cookie", "authorization"));
+    private static final Pattern COOKIE_VALUE = Pattern.compile("^([^=;]+)=[^;]*");
+    private static final String DEFAULT_IGNORED_FIELDS =
+        "__VIEWSTATE,__VIEWSTATEGENERATOR,__VIEWSTATEENCRYPTED,__EVENTVALIDATION,__PREVIOUSPAGE,__LASTFOCUS";
+    // A miss on these types means the flow under test cannot continue
+    private static final Set<String> STRICT_TYPES = new HashSet<>(Arrays.asList("document", "xhr", "fetch"));
+    private static final Set<String> SKIPPED_RESPONSE_HEADERS = new HashSet<>(Arrays.asList("content-length", "content-encoding", "transfer-encoding"));
+
+    private static final ThreadLocal<HarArchive> current = new ThreadLocal<>();
+
+    private final String mode;
+    private final Path harFile;
+    private final Set<String> ignoredFields;
+    private final Pattern scrubbedFields;
+    private final List<String> misses = Collections.synchronizedList(new ArrayList<>());
+    private Map<String, Deque<JsonObject>> entriesByKey;
+
+    private HarArchive(String mode, Path harFile) {
+        this.mode = mode;
+        this.harFile = harFile;
+        this.ignoredFields = Arrays.stream(ConfigReader.getProperty("harIgnoredFormFields", DEFAULT_IGNORED_FIELDS).split(","))
+            .map(String::trim).filter(field -> !field.isEmpty()).collect(Collectors.toSet());
+        this.scrubbedFields = Pattern.compile(ConfigReader.getProperty("harScrubbedFormFields", DEFAULT_SCRUBBED_FIELDS));
+    }
+
+    public static String getMode() {
+        String mode = ConfigReader.getProperty("harMode", LIVE).toLowerCase();
+        if (!mode.equals(RECORD) && !mode.equals(REPLAY)) {
+            return LIVE;
+        }
+        return mode;
+    }
+
+    public static boolean isActive() {
+        return !LIVE.equals(getMode());
+    }
+
+    /**
+     * Select the archive for the scenario about to start on this thread. No-op in live mode.
+     */
+    public static void begin(String featureName, String scenarioName, int line) {
+        current.remove();
+        if (!isActive()) return;
+        Path harFile = Paths.get(ConfigReader.getProperty("harDir", DEFAULT_HAR_DIR), sanitize(featureName),
+            sanitize(scenarioName) + "_L" + line + ".har");
+        current.set(new HarArchive(getMode(), harFile));
+    }
+
+    /**
+     * The archive for the current scenario, or null in live mode
+     */
+    public static HarArchive current() {
+        return current.get();
+    }
+
+    /**
+     * Finish the scenario and return the requests that were not found in the archive (replay only)
+     */
+    public static List<String> end() {
+        HarArchive archive = current.get();
+        current.remove();
+        if (archive == null) return Collections.emptyList();
+        if (RECORD.equals(archive.mode)) {
+            archive.scrub();
+        }
+        return new ArrayList<>(archive.misses);
+    }
+
+    public Path getHarFile() {
+        return harFile;
+    }
+
+    /**
+     * Record mode: write the context's traffic to the scenario archive when the context closes
+     */
+    public void configure(Browser.NewContextOptions contextOptions) {
+        if (!RECORD.equals(mode)) return;
+        try {
+            Files.createDirectories(harFile.getParent());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create HAR directory " + harFile.getParent(), e);
+        }
+        contextOptions.setRecordHarPath(harFile).setRecordHarContent(HarContentPolicy.EMBED);
+    }
+
+    /**
+     * Replay mode: serve the context from the scenario archive
+     */
+    public void attach(BrowserContext context) {
+        if (!REPLAY.equals(mode)) return;
+        if (!Files.isRegularFile(harFile)) {
+            throw new IllegalStateException("No HAR archive for this scenario at " + harFile
+                + " - record it first with -DharMode=record");
+        }
+        loadEntries();
+        // Registered first so it only sees what routeFromHAR falls back on
+        context.route("**/*", this::replayNormalized);
+        context.routeFromHAR(harFile, new BrowserContext.RouteFromHAROptions().setNotFound(HarNotFound.FALLBACK));
+        LoggerUtil.logInfo("Replaying HAR {} ({} request keys)", harFile, entriesByKey.size());
+    }
+
+    private void loadEntries() {
+        entriesByKey = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(harFile, StandardCharsets.UTF_8)) {
+            JsonArray entries = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("log").getAsJsonArray("entries");
+            for (JsonElement element : entries) {
+                JsonObject entry = element.getAsJsonObject();
+                JsonObject request = entry.getAsJsonObject("request");
+                String postData = request.has("postData") && request.getAsJsonObject("postData").has("text")
+                    ? request.getAsJsonObject("postData").get("text").getAsString() : null;
+                String key = matchKey(request.get("method").getAsString(), request.get("url").getAsString(), postData);
+                entriesByKey.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(entry.getAsJsonObject("response"));
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Could not read HAR archive " + harFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Record mode: strip credentials from the archive written when the context closed
+     */
+    private void scrub() {
+        if (!Files.isRegularFile(harFile)) {
+            LoggerUtil.logWarn("No HAR archive was written at {}", harFile);
+            return;
+        }
+        Path temp = harFile.resolveSibling(harFile.getFileName() + ".tmp");
+        try {
+            JsonObject har;
+            try (Reader reader = Files.newBufferedReader(harFile, StandardCharsets.UTF_8)) {
+                har = JsonParser.parseReader(reader).getAsJsonObject();
+            }
+            for (JsonElement element : har.getAsJsonObject("log").getAsJsonArray("entries")) {
+                JsonObject entry = element.getAsJsonObject();
+                JsonObject request = entry.getAsJsonObject("request");
+                scrubHeaders(request, false);
+                if (request.has("postData")) {
+                    JsonObject postData = request.getAsJsonObject("postData");
+                    if (postData.has("text")) {
+                        postData.addProperty("text", scrubForm(postData.get("text").getAsString()));
+                    }
+                    if (postData.has("params")) {
+                        for (JsonElement param : postData.getAsJsonArray("params")) {
+                            if (scrubbedFields.matcher(param.getAsJsonObject().get("name").getAsString()).find()) {
+                                param.getAsJsonObject().addProperty("value", SCRUBBED);
+                            }
+                        }
+                    }
+                }
+                scrubHeaders(entry.getAsJsonObject("response"), true);
+            }
+            Files.write(temp, har.toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(temp, harFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, harFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LoggerUtil.logInfo("HAR recorded: {}", harFile);
+        } catch (IOException | RuntimeException e) {
+            // Never leave an unscrubbed recording behind
+            LoggerUtil.logError("Could not scrub HAR archive {}, deleting it: {}", harFile, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+                Files.deleteIfExists(harFile);
+            } catch (IOException deleteError) {
+                LoggerUtil.logError("Could not delete unscrubbed HAR archive {}: {}", harFile, deleteError.getMessage());
+            }
+        }
+    }
+
+    private static void scrubHeaders(JsonObject message, boolean response) {
+        if (message == null) return;
+        if (message.has("headers")) {
+            for (JsonElement element : message.getAsJsonArray("headers")) {
+                JsonObject header = element.getAsJsonObject();
+                String name = header.get("name").getAsString().toLowerCase();
+                if (response && "set-cookie".equals(name)) {
+                    // Keep the cookie names and attributes so replay still sets them
+                    String[] cookies = header.get("value").getAsString().split("\n");
+                    for (int i = 0; i < cookies.length; i++) {
+                        cookies[i] = COOKIE_VALUE.matcher(cookies[i]).replaceFirst("$1=" + SCRUBBED);
+                    }
+                    header.addProperty("value", String.join("\n", cookies));
+                } else if (!response && SCRUBBED_REQUEST_HEADERS.contains(name)) {
+                    header.addProperty("value", SCRUBBED);
+                }
+            }
+        }
+        if (message.has("cookies")) {
+            for (JsonElement cookie : message.getAsJsonArray("cookies")) {
+                cookie.getAsJsonObject().addProperty("value", SCRUBBED);
+            }
+        }
+    }
+
+    /**
+     * Form body with the values of the scrubbed fields replaced
+     */
+    private String scrubForm(String postData) {
+        List<String> pairs = new ArrayList<>();
+        for (String pair : postData.split("&", -1)) {
+            pairs.add(scrubPair(pair));
+        }
+        return String.join("&", pairs);
+    }
+
+    private String scrubPair(String pair) {
+        int eq = pair.indexOf('=');
+        String name = eq >= 0 ? pair.substring(0, eq) : pair;
+        return eq >= 0 && scrubbedFields.matcher(decode(name)).find() ? name + "=" + SCRUBBED : pair;
+    }
+
+    private void replayNormalized(Route route) {
+        Request request = route.request();
+        String key = matchKey(request.method(), request.url(), request.postData());
+        JsonObject response;
+        synchronized (this) {
+            Deque<JsonObject> candidates = entriesByKey.get(key);
+            // Serve repeated requests in recorded order, then keep answering with the last one
+            response = candidates == null ? null : candidates.size() > 1 ? candidates.pollFirst() : candidates.peekFirst();
+        }
+        if (response == null) {
+            String miss = request.method() + " " + request.url() + " (" + request.resourceType() + ")";
+            if (STRICT_TYPES.contains(request.resourceType())) {
+                misses.add(miss);
+                LoggerUtil.logError("Request not in HAR archive {}: {}", harFile, miss);
+            } else {
+                LoggerUtil.logDebug("Request not in HAR archive, aborted: {}", miss);
+            }
+            route.abort();
+            return;
+        }
+        route.fulfill(toFulfillOptions(response));
+    }
+
+    private static Route.FulfillOptions toFulfillOptions(JsonObject response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (JsonElement element : response.getAsJsonArray("headers")) {
+            JsonObject header = element.getAsJsonObject();
+            String name = header.get("name").getAsString().toLowerCase();
+            if (SKIPPED_RESPONSE_HEADERS.contains(name)) continue;
+            // Repeated headers (set-cookie) are newline separated
+            headers.merge(name, header.get("value").getAsString(), (a, b) -> a + "\n" + b);
+        }
+        Route.FulfillOptions options = new Route.FulfillOptions().setStatus(response.get("status").getAsInt()).setHeaders(headers);
+        JsonObject content = response.getAsJsonObject("content");
+        if (content != null && content.has("text")) {
+            String text = content.get("text").getAsString();
+            boolean base64 = content.has("encoding") && "base64".equals(content.get("encoding").getAsString());
+            options.setBodyBytes(base64 ? Base64.getDecoder().decode(text) : text.getBytes(StandardCharsets.UTF_8));
+        }
+        return options;
+    }
+
+    /**
+     * Method + URL (without fragment) + form fields sorted, with the volatile ASP.NET fields removed and the
+     * scrubbed fields masked, so a live request matches its scrubbed recording
+     */
+    private String matchKey(String method, String url, String postData) {
+        int fragment = url.indexOf('#');
+        StringBuilder key = new StringBuilder(method.toUpperCase()).append(' ').append(fragment >= 0 ? url.substring(0, fragment) : url);
+        if (postData != null && !postData.isEmpty()) {
+            List<String> fields = new ArrayList<>();
+            for (String pair : postData.split("&")) {
+                int eq = pair.indexOf('=');
+                String name = decode(eq >= 0 ? pair.substring(0, eq) : pair);
+                if (!ignoredFields.contains(name)) {
+                    fields.add(scrubPair(pair));
+                }
+            }
+            Collections.sort(fields);
+            key.append(' ').append(String.join("&", fields));
+        }
+        return key.toString();
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+}
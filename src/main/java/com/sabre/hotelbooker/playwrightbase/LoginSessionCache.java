@@ -0,0 +1,64 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.microsoft.playwright.BrowserContext;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticated session cache - keeps the Playwright storage state JSON per (environment, username)
+ * in memory so the Background login only runs once per account per run.
+ * Parallel workers share the cache: each state is an immutable string swapped in whole, so a worker opening
+ * a context never sees a half-written state, and an invalidation cannot pull it out from under a reader.
+ */
+public class LoginSessionCache {
+
+    private static final Map<String, String> sessionStates = new ConcurrentHashMap<>();
+
+    /**
+     * Enabled with loginSessionCache=true in the env properties (or -DloginSessionCache=true)
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("loginSessionCache", false);
+    }
+
+    /**
+     * Get the saved storage state JSON for the configured account, or null if no valid login has been cached yet
+     */
+    public static String getCachedState() {
+        if (!isEnabled()) {
+            return null;
+        }
+        return sessionStates.get(getSessionKey());
+    }
+
+    /**
+     * Save the storage state of a freshly logged-in context
+     */
+    public static void save(BrowserContext context) {
+        String key = getSessionKey();
+        try {
+            sessionStates.put(key, context.storageState());
+            LoggerUtil.logInfo("Login session cached for {}", key);
+        } catch (Exception e) {
+            LoggerUtil.logWarn("Failed to cache login session for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the cached session (e.g. after the server expired it) so the next scenario logs in for real
+     */
+    public static void invalidate() {
+        if (sessionStates.remove(getSessionKey()) != null) {
+            LoggerUtil.logInfo("Cached login session invalidated for {}", getSessionKey());
+        }
+    }
+
+    private static String getSessionKey() {
+        String env = System.getProperty("env", "DEV").toUpperCase();
+        String username = ConfigReader.getProperty("username");
+        return (env + "_" + username).replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+}
@@ -0,0 +1,137 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.TimeoutError;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the requests in flight for a whole BrowserContext from its request / requestfinished /
+ * requestfailed events. Installed once when the context is created, so it sees every request - document,
+ * XHR (UpdatePanel post-backs), fetch and subresources - across navigations, with nothing injected into the page.
+ *
+ * networkTrackerIgnore is an optional regex of URLs that are never counted (long polling, analytics).
+ */
+public class NetworkActivityTracker {
+
+    private static final Map<BrowserContext, NetworkActivityTracker> trackers = new ConcurrentHashMap<>();
+
+    private final BrowserContext context;
+    private final Pattern ignored;
+    // Requests in flight and when they started
+    private final Map<Request, Long> inFlight = new ConcurrentHashMap<>();
+    // Background pages (e.g. prefetch tabs) whose requests do not count
+    private final Set<Page> ignoredPages = ConcurrentHashMap.newKeySet();
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    private NetworkActivityTracker(BrowserContext context) {
+        this.context = context;
+        String ignore = ConfigReader.getProperty("networkTrackerIgnore", "");
+        this.ignored = ignore.trim().isEmpty() ? null : Pattern.compile(ignore.trim());
+    }
+
+    /**
+     * Start tracking a new context; call before its first page is opened
+     */
+    public static NetworkActivityTracker install(BrowserContext context) {
+        NetworkActivityTracker tracker = new NetworkActivityTracker(context);
+        context.onRequest(tracker::started);
+        context.onRequestFinished(tracker::ended);
+        context.onRequestFailed(tracker::ended);
+        // Requests of a closed page never finish
+        context.onPage(page -> page.onClose(tracker::pageClosed));
+        context.onClose(closed -> trackers.remove(closed));
+        trackers.put(context, tracker);
+        return tracker;
+    }
+
+    /**
+     * Tracker of a context, or null when it was not created through PlayWrightBaseTest
+     */
+    public static NetworkActivityTracker of(BrowserContext context) {
+        return context == null ? null : trackers.get(context);
+    }
+
+    /**
+     * Stop counting the requests of a background page, so waits on the foreground page do not wait for it
+     */
+    public void ignorePage(Page page) {
+        ignoredPages.add(page);
+    }
+
+    // Only tracked requests move lastActivity, so ignored traffic never restarts the idle window
+    private void started(Request request) {
+        if (!ignoredPages.isEmpty() && ignoredPages.contains(pageOf(request))) {
+            return;
+        }
+        if (ignored != null && ignored.matcher(request.url()).find()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        inFlight.put(request, now);
+        lastActivity = now;
+    }
+
+    private void ended(Request request) {
+        if (inFlight.remove(request) != null) {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    private void pageClosed(Page page) {
+        inFlight.keySet().removeIf(request -> pageOf(request) == page);
+        ignoredPages.remove(page);
+    }
+
+    private static Page pageOf(Request request) {
+        try {
+            return request.frame().page();
+        } catch (RuntimeException e) {
+            // Service worker requests have no frame
+            return null;
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Wait until no tracked request has been in flight for idleMs. Events are pumped by Playwright while
+     * waiting, so nothing polls the page.
+     * @return milliseconds actually waited
+     * @throws TimeoutError listing the requests still in flight at the timeout
+     */
+    public long waitForIdle(int idleMs, int timeoutMs) {
+        long start = System.currentTimeMillis();
+        try {
+            context.waitForCondition(() -> inFlight.isEmpty() && System.currentTimeMillis() - lastActivity >= idleMs,
+                new BrowserContext.WaitForConditionOptions().setTimeout(timeoutMs));
+        } catch (TimeoutError e) {
+            throw new TimeoutError("Network not idle for " + idleMs + " ms within " + timeoutMs + " ms; blocking requests: " + describeInFlight());
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Requests in flight, oldest first, as "METHOD url (type, age ms)"
+     */
+    public String describeInFlight() {
+        long now = System.currentTimeMillis();
+        if (inFlight.isEmpty()) {
+            return "none (activity " + (now - lastActivity) + " ms ago)";
+        }
+        return inFlight.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue())
+            .map(entry -> String.format("%s %s (%s, %d ms)", entry.getKey().method(), entry.getKey().url(),
+                entry.getKey().resourceType(), now - entry.getValue()))
+            .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,328 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Route;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in persistent browser profile (persistentProfile=true) so the HTTP disk cache survives between
+ * scenarios and runs. Each worker thread gets its own user-data directory under persistentProfileDir, claimed
+ * with a lock file so JVMs sharing the directory (forks, shards, concurrent CI jobs) never open the same one.
+ * Cookies and every kind of site storage of the origins a scenario visited are cleared after it, so only the
+ * cache carries over; when that reset fails the profile is discarded.
+ *
+ * The cache is capped with browserCacheSizeMB (Chromium --disk-cache-size, Firefox cache prefs). A profile
+ * directory that grows past twice the cap (WebKit has no cache limit switch) is deleted at launch.
+ */
+public class PersistentBrowserProfile {
+
+    private static final String DEFAULT_PROFILE_DIR = "browser-profiles";
+    private static final int DEFAULT_CACHE_SIZE_MB = 200;
+
+    private static final int MAX_PROFILE_SLOTS = 256;
+    // Everything Storage.clearDataForOrigin can clear except the HTTP cache
+    private static final String CLEARED_STORAGE_TYPES =
+        "cookies,file_systems,indexeddb,local_storage,shader_cache,websql,service_workers,cache_storage";
+    // Same clean-up from inside a page, for browsers without CDP
+    private static final String CLEAR_STORAGE_SCRIPT =
+        "async () => {" +
+            "localStorage.clear();" +
+            "sessionStorage.clear();" +
+            "if (indexedDB.databases) {" +
+                "for (const db of await indexedDB.databases()) {" +
+                    "await new Promise(done => { const request = indexedDB.deleteDatabase(db.name); request.onsuccess = request.onerror = request.onblocked = done; });" +
+                "}" +
+            "}" +
+            "if (self.caches) { for (const key of await caches.keys()) { await caches.delete(key); } }" +
+            "if (navigator.serviceWorker) { for (const registration of await navigator.serviceWorker.getRegistrations()) { await registration.unregister(); } }" +
+        "}";
+    private static final String RESET_PATH = "/__profile_reset__";
+
+    // Profile directory claimed by each worker thread; the lock files are held until the JVM exits
+    private static final ThreadLocal<Path> profileSlot = new ThreadLocal<>();
+    private static final Map<Path, FileChannel> heldLocks = new ConcurrentHashMap<>();
+    // Origins each persistent context sent requests to since its last reset
+    private static final Map<BrowserContext, Set<String>> visitedOrigins = new ConcurrentHashMap<>();
+    // Persistent contexts have no Browser object, so the browser they were launched with is kept here
+    private static final Map<BrowserContext, String> contextBrowsers = new ConcurrentHashMap<>();
+    // True until the first scenario has run on a profile that was created empty
+    private static final ThreadLocal<Boolean> coldCache = ThreadLocal.withInitial(() -> false);
+
+    // Scenario timings split by cache state
+    private static final AtomicInteger coldScenarios = new AtomicInteger(0);
+    private static final AtomicLong coldScenarioMillis = new AtomicLong(0);
+    private static final AtomicInteger warmScenarios = new AtomicInteger(0);
+    private static final AtomicLong warmScenarioMillis = new AtomicLong(0);
+    private static final AtomicInteger profileResets = new AtomicInteger(0);
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("persistentProfile", false);
+    }
+
+    /**
+     * Launch a persistent context on this worker's profile directory, starting with no cookies or storage
+     */
+    public static BrowserContext launch(Playwright playwright, String browserName, Dimension viewport) {
+        int cacheSizeMb = ConfigReader.getIntProperty("browserCacheSizeMB", DEFAULT_CACHE_SIZE_MB);
+        Path profileDir = claimProfileDir(browserName);
+        long profileBytes = directorySize(profileDir);
+        if (profileBytes > cacheSizeMb * 2L * 1024 * 1024) {
+            LoggerUtil.logInfo("Browser profile {} is {} MB (limit {} MB) - resetting", profileDir, profileBytes / (1024 * 1024), cacheSizeMb);
+            deleteDirectory(profileDir);
+            profileResets.incrementAndGet();
+            profileBytes = 0;
+        }
+        coldCache.set(profileBytes == 0);
+
+        BrowserType.LaunchPersistentContextOptions options = new BrowserType.LaunchPersistentContextOptions()
+            .setHeadless(false)
+            .setViewportSize(viewport.width, viewport.height);
+        BrowserType browserType;
+        switch (browserName.toLowerCase()) {
+            case "firefox":
+                Map<String, Object> prefs = new HashMap<>();
+                prefs.put("browser.cache.disk.smart_size.enabled", false);
+                prefs.put("browser.cache.disk.capacity", cacheSizeMb * 1024);
+                options.setFirefoxUserPrefs(prefs);
+                browserType = playwright.firefox();
+                break;
+            case "webkit":
+                browserType = playwright.webkit();
+                break;
+            default:
+                options.setArgs(Arrays.asList("--window-position=0,0", "--window-size=" + viewport.width + "," + viewport.height,
+                    "--disk-cache-size=" + cacheSizeMb * 1024L * 1024));
+                browserType = playwright.chromium();
+        }
+        BrowserContext persistentContext = browserType.launchPersistentContext(profileDir, options);
+        Set<String> origins = ConcurrentHashMap.newKeySet();
+        visitedOrigins.put(persistentContext, origins);
+        contextBrowsers.put(persistentContext, browserName.toLowerCase());
+        persistentContext.onRequest(request -> {
+            String origin = originOf(request.url());
+            if (origin != null) {
+                origins.add(origin);
+            }
+        });
+        persistentContext.onClose(closed -> {
+            visitedOrigins.remove(closed);
+            contextBrowsers.remove(closed);
+        });
+        // A previous run that did not shut down cleanly may have left its cookies in the profile
+        persistentContext.clearCookies();
+        LoggerUtil.logInfo("Launched persistent profile {} ({} cache)", profileDir, coldCache.get() ? "cold" : "warm");
+        return persistentContext;
+    }
+
+    /**
+     * Clear cookies and all site storage (local/session storage, IndexedDB, Cache Storage, service workers, ...)
+     * of every origin the scenario sent requests to, leaving the HTTP cache in place. Chromium clears each origin
+     * with the CDP call Storage.clearDataForOrigin; other browsers run the clean-up script on a stub page of the
+     * origin. Extra pages are closed and the first page is parked on about:blank.
+     * @return false when the reset failed and the context must not be used for another scenario
+     */
+    public static boolean resetScenarioState(BrowserContext persistentContext) {
+        try {
+            for (int i = persistentContext.pages().size() - 1; i > 0; i--) {
+                persistentContext.pages().get(i).close();
+            }
+            Page firstPage = persistentContext.pages().isEmpty() ? persistentContext.newPage() : persistentContext.pages().get(0);
+            firstPage.navigate("about:blank");
+            Set<String> origins = visitedOrigins.getOrDefault(persistentContext, Collections.emptySet());
+            List<String> toClear = new ArrayList<>(origins);
+            if (isChromium(persistentContext)) {
+                CDPSession session = persistentContext.newCDPSession(firstPage);
+                try {
+                    for (String origin : toClear) {
+                        JsonObject params = new JsonObject();
+                        params.addProperty("origin", origin);
+                        params.addProperty("storageTypes", CLEARED_STORAGE_TYPES);
+                        session.send("Storage.clearDataForOrigin", params);
+                    }
+                } finally {
+                    session.detach();
+                }
+            } else {
+                for (String origin : toClear) {
+                    clearOriginFromPage(firstPage, origin);
+                }
+                firstPage.navigate("about:blank");
+            }
+            persistentContext.clearCookies();
+            origins.removeAll(toClear);
+            return true;
+        } catch (RuntimeException e) {
+            LoggerUtil.logWarn("Failed to reset persistent profile state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Delete this worker's profile directory after a failed reset (the context must be closed first),
+     * so the next launch starts from a clean profile
+     */
+    public static void discardProfile() {
+        Path profileDir = profileSlot.get();
+        if (profileDir != null) {
+            LoggerUtil.logWarn("Discarding browser profile {} after a failed state reset", profileDir);
+            deleteDirectory(profileDir);
+            profileResets.incrementAndGet();
+        }
+    }
+
+    private static void clearOriginFromPage(Page target, String origin) {
+        // The stub page is served by the route, so the reset sends nothing to the server
+        String resetUrl = origin + RESET_PATH;
+        target.route(resetUrl, route -> route.fulfill(new Route.FulfillOptions().setContentType("text/html").setBody("<html></html>")));
+        try {
+            target.navigate(resetUrl);
+            target.evaluate(CLEAR_STORAGE_SCRIPT);
+        } finally {
+            target.unroute(resetUrl);
+        }
+    }
+
+    private static boolean isChromium(BrowserContext persistentContext) {
+        String browserName = contextBrowsers.get(persistentContext);
+        return !"firefox".equals(browserName) && !"webkit".equals(browserName);
+    }
+
+    private static String originOf(String url) {
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Profile directory of this worker thread: the first &lt;browser&gt;_worker&lt;N&gt; whose lock file no other
+     * thread or JVM holds. The thread keeps its directory (and lock) for the rest of the run.
+     */
+    private static synchronized Path claimProfileDir(String browserName) {
+        Path claimed = profileSlot.get();
+        if (claimed != null) {
+            return claimed;
+        }
+        Path root = Paths.get(ConfigReader.getProperty("persistentProfileDir", DEFAULT_PROFILE_DIR));
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create browser profile directory " + root, e);
+        }
+        for (int slot = 0; slot < MAX_PROFILE_SLOTS; slot++) {
+            String name = browserName.toLowerCase() + "_worker" + slot;
+            Path profileDir = root.resolve(name);
+            // Claimed by another worker thread of this JVM. Never open a second channel on its lock file:
+            // closing that channel would release this JVM's lock on the file.
+            if (heldLocks.containsKey(profileDir)) {
+                continue;
+            }
+            Path lockFile = root.resolve(name + ".lock");
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    heldLocks.put(profileDir, channel);
+                    profileSlot.set(profileDir);
+                    return profileDir;
+                }
+            } catch (OverlappingFileLockException e) {
+                // Locked through another channel of this JVM
+            } catch (IOException e) {
+                LoggerUtil.logWarn("Cannot lock browser profile slot {}: {}", lockFile, e.getMessage());
+            }
+            closeQuietly(channel);
+        }
+        throw new IllegalStateException("All " + MAX_PROFILE_SLOTS + " browser profile slots under " + root + " are in use");
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing held
+            }
+        }
+    }
+
+    /**
+     * Record a scenario's duration against the cache state it ran with
+     */
+    public static void recordScenario(long elapsedMillis) {
+        if (coldCache.get()) {
+            coldScenarios.incrementAndGet();
+            coldScenarioMillis.addAndGet(elapsedMillis);
+            coldCache.set(false);
+        } else {
+            warmScenarios.incrementAndGet();
+            warmScenarioMillis.addAndGet(elapsedMillis);
+        }
+        LoggerUtil.logPerformance("Scenario duration (persistent profile)", elapsedMillis);
+    }
+
+    /**
+     * First-run (empty cache) vs warm-cache scenario timings and the size of the profile directories
+     */
+    public static String getTimingSummary() {
+        int cold = coldScenarios.get();
+        int warm = warmScenarios.get();
+        long avgCold = cold > 0 ? coldScenarioMillis.get() / cold : 0;
+        long avgWarm = warm > 0 ? warmScenarioMillis.get() / warm : 0;
+        long profileMb = directorySize(Paths.get(ConfigReader.getProperty("persistentProfileDir", DEFAULT_PROFILE_DIR))) / (1024 * 1024);
+        return String.format("cold-cache scenarios=%d (avg %d ms), warm-cache scenarios=%d (avg %d ms), difference=%s, profile size=%d MB, resets=%d",
+            cold, avgCold, warm, avgWarm, cold > 0 && warm > 0 ? (avgCold - avgWarm) + " ms" : "n/a", profileMb, profileResets.get());
+    }
+
+    private static long directorySize(Path dir) {
+        if (!Files.isDirectory(dir)) return 0;
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException | java.io.UncheckedIOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteDirectory(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Failed to delete browser profile {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -2,101 +2,373 @@
 package com.sabre.hotelbooker.playwrightbase;
 
 import com.microsoft.playwright.*;
-import com.sabre.hotelbooker.extentreportutils.ExtentReportManager;
+import com.microsoft.playwright.options.WaitUntilState;
 import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.awt.Dimension;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class PlayWrightBaseTest {
 
-    protected static Playwright playwright;
-    protected static Browser browser;
-    protected static BrowserContext context;
-    public static Page page;
-    
+    // Browser state is per thread so scenarios can run in parallel (one scenario per worker thread at a time)
+    private static final ThreadLocal<Playwright> playwright = new ThreadLocal<>();
+    private static final ThreadLocal<Browser> browser = new ThreadLocal<>();
+    private static final ThreadLocal<BrowserContext> context = new ThreadLocal<>();
+    private static final ThreadLocal<Page> page = new ThreadLocal<>();
+
+    // browserLifecycle=worker keeps the thread's Playwright + Browser open for the whole run
+    private static final Queue<Playwright> workerPlaywrights = new ConcurrentLinkedQueue<>();
+
+    // Setup timings: a cold start launches driver + browser, a warm start only opens a new context
+    private static final AtomicInteger coldStarts = new AtomicInteger(0);
+    private static final AtomicLong coldStartMillis = new AtomicLong(0);
+    private static final AtomicInteger warmStarts = new AtomicInteger(0);
+    private static final AtomicLong warmStartMillis = new AtomicLong(0);
+
+    // True when the current context was seeded from a cached login session
+    private static final ThreadLocal<Boolean> sessionSeeded = ThreadLocal.withInitial(() -> false);
+    // True when the current page came from the warm pool and is already on the login page
+    private static final ThreadLocal<Boolean> pageWarm = ThreadLocal.withInitial(() -> false);
+    // Request-blocking profile installed on the current context
+    private static final ThreadLocal<RequestBlockingProfile> requestBlocking = new ThreadLocal<>();
+    // persistentProfile=true: the worker's persistent context (no separate Browser) and the scenario start time
+    private static final ThreadLocal<BrowserContext> persistentContext = new ThreadLocal<>();
+    private static final ThreadLocal<Long> scenarioStart = new ThreadLocal<>();
+    // Set when the browser was recycled before the current scenario
+    private static final ThreadLocal<String> recycleEvent = new ThreadLocal<>();
+    // contextPoolSize > 0 (worker lifecycle only) keeps pre-navigated contexts ready on each worker's browser
+    private static final ThreadLocal<BrowserContextPool> contextPool = new ThreadLocal<>();
+
+    public static Page getPage() {
+        return page.get();
+    }
+
+    public static BrowserContext getContext() {
+        return context.get();
+    }
+
+    public static Browser getBrowser() {
+        return browser.get();
+    }
+
     public static void initialize() {
+        initialize(java.util.Collections.emptyList());
+    }
+
+    /**
+     * Set up the scenario's browser state. Scenario tags select the request-blocking profile (@routing_<name>).
+     */
+    public static void initialize(java.util.Collection<String> scenarioTags) {
+        long start = System.currentTimeMillis();
         String browserName = ConfigReader.getProperty("browserName");
-        playwright = Playwright.create();
+        // HAR record/replay needs a fresh context per scenario, so it takes precedence over the persistent profile
+        if (PersistentBrowserProfile.isEnabled() && HarArchive.current() == null) {
+            initializePersistent(scenarioTags, browserName, start);
+            return;
+        }
+        Browser currentBrowser = browser.get();
+        boolean reusable = isWorkerLifecycle() && currentBrowser != null && currentBrowser.isConnected();
+        boolean coldStart = !reusable || recycleIfDue();
+        if (coldStart) {
+            if (playwright.get() != null) {
+                workerPlaywrights.remove(playwright.get());
+                playwright.get().close();
+            }
+            Playwright currentPlaywright = BrowserRecyclePolicy.createPlaywright();
+            currentBrowser = launchBrowser(currentPlaywright, browserName);
+            playwright.set(currentPlaywright);
+            browser.set(currentBrowser);
+            if (isWorkerLifecycle()) {
+                workerPlaywrights.add(currentPlaywright);
+            }
+        }
+        BrowserContextPool pool = contextPool.get();
+        if (coldStart) {
+            if (pool != null) pool.close();
+            pool = null;
+            int poolSize = ConfigReader.getIntProperty("contextPoolSize", 0);
+            if (isWorkerLifecycle() && poolSize > 0) {
+                final Browser poolBrowser = currentBrowser;
+                pool = new BrowserContextPool(poolSize, () -> openContext(poolBrowser, browserName, true));
+            }
+            contextPool.set(pool);
+        }
+        // Pooled contexts are opened before the scenario is known, so they cannot record or replay its HAR
+        BrowserContextPool.PooledContext leased = pool != null && HarArchive.current() == null ? pool.lease() : null;
+        if (leased == null) {
+            leased = openContext(currentBrowser, browserName, false);
+        }
+        context.set(leased.context);
+        page.set(leased.page);
+        sessionSeeded.set(leased.sessionSeeded);
+        pageWarm.set(leased.prewarmed);
+        RequestBlockingProfile blockingProfile = RequestBlockingProfile.forScenario(scenarioTags);
+        blockingProfile.apply(leased.context);
+        requestBlocking.set(blockingProfile);
+        BrowserRecyclePolicy.scenarioStarted();
+        recordSetupTime(coldStart, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Check the recycle policy for the worker's reused browser; a due recycle turns this setup into a cold start
+     */
+    private static boolean recycleIfDue() {
+        String reason = BrowserRecyclePolicy.getRecycleReason();
+        if (reason == null) return false;
+        BrowserRecyclePolicy.recordRecycle(reason);
+        recycleEvent.set(reason);
+        return true;
+    }
+
+    /**
+     * Why the worker browser was restarted before the current scenario, or null if it was not
+     */
+    public static String getRecycleEvent() {
+        return recycleEvent.get();
+    }
+
+    /**
+     * Persistent profile mode: one persistent context per worker (relaunched per scenario in scenario
+     * lifecycle) so the HTTP cache stays warm. The context pool and login session seeding do not apply.
+     */
+    private static void initializePersistent(java.util.Collection<String> scenarioTags, String browserName, long start) {
+        BrowserContext currentContext = persistentContext.get();
+        boolean coldStart = !isWorkerLifecycle() || currentContext == null || recycleIfDue();
+        if (coldStart) {
+            if (playwright.get() != null) {
+                workerPlaywrights.remove(playwright.get());
+                playwright.get().close();
+            }
+            Playwright currentPlaywright = BrowserRecyclePolicy.createPlaywright();
+            currentContext = PersistentBrowserProfile.launch(currentPlaywright, browserName, getViewportSize(browserName));
+            NetworkActivityTracker.install(currentContext);
+            // Drop the reference if the browser goes away so the next scenario relaunches it
+            currentContext.onClose(closed -> persistentContext.remove());
+            playwright.set(currentPlaywright);
+            persistentContext.set(currentContext);
+            if (isWorkerLifecycle()) {
+                workerPlaywrights.add(currentPlaywright);
+            }
+        }
+        Page currentPage = currentContext.pages().isEmpty() ? currentContext.newPage() : currentContext.pages().get(0);
+        context.set(currentContext);
+        page.set(currentPage);
+        RequestBlockingProfile blockingProfile = RequestBlockingProfile.forScenario(scenarioTags);
+        blockingProfile.apply(currentContext);
+        requestBlocking.set(blockingProfile);
+        BrowserRecyclePolicy.scenarioStarted();
+        scenarioStart.set(System.currentTimeMillis());
+        recordSetupTime(coldStart, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Open a new context (seeded from the cached login session when available) and its page.
+     * A pre-warmed page starts navigating to the login page and returns once the navigation commits.
+     * A scenario context in HAR record/replay mode is never seeded so recorded and replayed flows match.
+     */
+    private static BrowserContextPool.PooledContext openContext(Browser targetBrowser, String browserName, boolean prewarm) {
+        Dimension viewport = getViewportSize(browserName);
+        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions().setViewportSize(viewport.width, viewport.height);
+        HarArchive harArchive = prewarm ? null : HarArchive.current();
+        String cachedSession = harArchive == null ? LoginSessionCache.getCachedState() : null;
+        if (cachedSession != null) {
+            contextOptions.setStorageState(cachedSession);
+        }
+        if (harArchive != null) {
+            harArchive.configure(contextOptions);
+        }
+        BrowserContext newContext = targetBrowser.newContext(contextOptions);
+        try {
+            NetworkActivityTracker.install(newContext);
+            if (harArchive != null) {
+                // Throws for a missing or unreadable archive in replay mode
+                harArchive.attach(newContext);
+            }
+            Page newPage = newContext.newPage();
+            if (prewarm) {
+                newPage.navigate(ConfigReader.getProperty("HotelBookerURL"), new Page.NavigateOptions().setWaitUntil(WaitUntilState.COMMIT));
+            }
+            return new BrowserContextPool.PooledContext(newContext, newPage, cachedSession != null, prewarm);
+        } catch (RuntimeException e) {
+            // Nothing holds the context yet, so it would stay open until the browser closes
+            try {
+                newContext.close();
+            } catch (Exception closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    private static Browser launchBrowser(Playwright playwright, String browserName) {
         switch (browserName.toLowerCase()) {
             case "firefox":
-                browser = playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(false));
-                context = browser.newContext();
-                page = context.newPage();
-                // Fallback: maximize viewport for Firefox
-                try {
-                    java.awt.Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-                    page.setViewportSize(screenSize.width, screenSize.height);
-                } catch (Exception e) {
-                    page.setViewportSize(1910, 1050);
-                }
-                break;
+                return playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(false));
             case "webkit":
-                browser = playwright.webkit().launch(new BrowserType.LaunchOptions().setHeadless(false));
-                context = browser.newContext();
-                page = context.newPage();
-                // Fallback: maximize viewport for Webkit
-                try {
-                    java.awt.Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-                    page.setViewportSize(screenSize.width, screenSize.height);
-                } catch (Exception e) {
-                    page.setViewportSize(1920, 1080);
-                }
-                break;
+                return playwright.webkit().launch(new BrowserType.LaunchOptions().setHeadless(false));
             default:
-                int width = 1620;
-                int height = 1080;
-                try {
-                    java.awt.Dimension screenSize = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
-                    width = screenSize.width;
-                    height = screenSize.height;
-                } catch (Exception e) { }
-                browser = playwright.chromium().launch(
+                Dimension size = getViewportSize(browserName);
+                return playwright.chromium().launch(
                     new BrowserType.LaunchOptions()
                         .setHeadless(false)
-                        .setArgs(java.util.Arrays.asList("--window-position=0,0", "--window-size=" + width + "," + height))
+                        .setArgs(java.util.Arrays.asList("--window-position=0,0", "--window-size=" + size.width + "," + size.height))
                 );
-                context = browser.newContext(new Browser.NewContextOptions().setViewportSize(width, height));
-                page = context.newPage();
         }
     }
 
-    public static void tearDown() {
-        if (context != null) context.close();
-        if (browser != null) browser.close();
-        if (playwright != null) playwright.close();
+    /**
+     * Maximized viewport, falling back to a per-browser default when the screen size is unavailable
+     */
+    private static Dimension getViewportSize(String browserName) {
+        try {
+            return java.awt.Toolkit.getDefaultToolkit().getScreenSize();
+        } catch (Exception e) {
+            switch (browserName.toLowerCase()) {
+                case "firefox":
+                    return new Dimension(1910, 1050);
+                case "webkit":
+                    return new Dimension(1920, 1080);
+                default:
+                    return new Dimension(1620, 1080);
+            }
+        }
     }
 
-    public static void captureScreenshotWithInfo(com.microsoft.playwright.Page page, String info, com.aventstack.extentreports.ExtentTest test) {
-        String currentTimestamp = new java.text.SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new java.util.Date());
-        String screenshotPath = captureScreenshotToFile(page, currentTimestamp);
-        String relativePath = screenshotPath.replace(ExtentReportManager.reportDir + java.io.File.separator, "");
-        if (test != null) {
-            test.info(info + " <a href='" + relativePath + "' target='_blank'>Screenshot</a>");
+    /**
+     * Requests and bytes saved by the current scenario's request-blocking profile
+     */
+    public static String getRequestBlockingSummary() {
+        RequestBlockingProfile profile = requestBlocking.get();
+        return profile != null ? profile.getSummary() : "";
+    }
+
+    public static boolean isPageWarm() {
+        return pageWarm.get();
+    }
+
+    public static boolean isSessionSeeded() {
+        return sessionSeeded.get();
+    }
+
+    public static boolean isWorkerLifecycle() {
+        return "worker".equalsIgnoreCase(ConfigReader.getProperty("browserLifecycle", "scenario"));
+    }
+
+    private static void recordSetupTime(boolean coldStart, long elapsedMillis) {
+        if (coldStart) {
+            coldStarts.incrementAndGet();
+            coldStartMillis.addAndGet(elapsedMillis);
         } else {
-            System.err.println("[WARN] ExtentTest is null in captureScreenshotWithInfo. Info: " + info);
+            warmStarts.incrementAndGet();
+            warmStartMillis.addAndGet(elapsedMillis);
         }
+        LoggerUtil.logPerformance(coldStart ? "Browser setup (cold start)" : "Browser setup (shared browser)", elapsedMillis);
     }
 
-    private static String captureScreenshotToFile(com.microsoft.playwright.Page page, String scenarioName) {
-        try {
-            // Always use the same timestamp folder as ExtentReport.html for screenshots
-            String reportDir = ExtentReportManager.reportDir;
-            if (reportDir == null) {
-                // fallback if reportDir is not initialized
-                String date = new java.text.SimpleDateFormat("ddMMMyy").format(new java.util.Date()).toUpperCase();
-                String time = new java.text.SimpleDateFormat("HHmmss").format(new java.util.Date());
-                reportDir = "reports" + java.io.File.separator + date + java.io.File.separator + time;
+    /**
+     * Summary of scenario setup timings and the time saved by reusing the worker browser
+     */
+    public static String getSetupTimingSummary() {
+        int cold = coldStarts.get();
+        int warm = warmStarts.get();
+        long avgCold = cold > 0 ? coldStartMillis.get() / cold : 0;
+        long avgWarm = warm > 0 ? warmStartMillis.get() / warm : 0;
+        long saved = cold > 0 ? Math.max(0, warm * (avgCold - avgWarm)) : 0;
+        return String.format("lifecycle=%s, cold starts=%d (avg %d ms), shared-browser starts=%d (avg %d ms), estimated saving=%d ms",
+            isWorkerLifecycle() ? "worker" : "scenario", cold, avgCold, warm, avgWarm, saved);
+    }
+
+    /**
+     * Close the scenario context. In worker lifecycle the Playwright and Browser stay open until shutdown().
+     */
+    public static void tearDown() {
+        if (persistentContext.get() != null) {
+            tearDownPersistent();
+            return;
+        }
+        if (context.get() != null) context.get().close();
+        if (!isWorkerLifecycle()) {
+            if (browser.get() != null) browser.get().close();
+            if (playwright.get() != null) playwright.get().close();
+            browser.remove();
+            playwright.remove();
+        }
+        context.remove();
+        page.remove();
+        sessionSeeded.remove();
+        pageWarm.remove();
+        requestBlocking.remove();
+        recycleEvent.remove();
+        // Refill between scenarios so the next lease finds a fully loaded login page
+        if (isWorkerLifecycle() && contextPool.get() != null) {
+            contextPool.get().fill();
+        }
+    }
+
+    /**
+     * Reset cookies/storage on the persistent context and keep it for the next scenario (worker lifecycle)
+     * or close it with its Playwright (scenario lifecycle). The profile directory keeps the HTTP cache.
+     * When the reset fails the context is closed and its profile deleted, so the next scenario relaunches clean.
+     */
+    private static void tearDownPersistent() {
+        BrowserContext currentContext = persistentContext.get();
+        if (requestBlocking.get() != null) {
+            requestBlocking.get().remove(currentContext);
+        }
+        boolean clean = PersistentBrowserProfile.resetScenarioState(currentContext);
+        if (scenarioStart.get() != null) {
+            PersistentBrowserProfile.recordScenario(System.currentTimeMillis() - scenarioStart.get());
+        }
+        // A context whose state could not be reset is never handed to the next scenario
+        if (!isWorkerLifecycle() || !clean) {
+            if (currentContext != null) currentContext.close();
+            if (playwright.get() != null) {
+                workerPlaywrights.remove(playwright.get());
+                playwright.get().close();
+            }
+            persistentContext.remove();
+            playwright.remove();
+            if (!clean) {
+                PersistentBrowserProfile.discardProfile();
+            }
+        }
+        context.remove();
+        page.remove();
+        requestBlocking.remove();
+        scenarioStart.remove();
+        recycleEvent.remove();
+    }
+
+    /**
+     * Close every worker Playwright (and its browser). Called once from @AfterAll after all workers are idle.
+     */
+    public static void shutdown() {
+        Playwright workerInstance;
+        while ((workerInstance = workerPlaywrights.poll()) != null) {
+            try {
+                workerInstance.close();
+            } catch (Exception e) {
+                LoggerUtil.logWarn("Failed to close worker Playwright: {}", e.getMessage());
             }
-            String screenshotDir = reportDir + java.io.File.separator + "Screenshot";
-            new java.io.File(screenshotDir).mkdirs();
-            String fileName = scenarioName.replaceAll("[^a-zA-Z0-9]", "_") + "_" + System.currentTimeMillis() + ".png";
-            String filePath = screenshotDir + java.io.File.separator + fileName;
-            page.screenshot(new com.microsoft.playwright.Page.ScreenshotOptions().setPath(new java.io.File(filePath).toPath()).setFullPage(true));
-            return filePath;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
         }
+        playwright.remove();
+        browser.remove();
+        persistentContext.remove();
+        contextPool.remove();
     }
+
+    /**
+     * Screenshot asked for by step code, linked from the report node (see ScreenshotService)
+     */
+    public static void captureScreenshotWithInfo(com.microsoft.playwright.Page page, String info, com.aventstack.extentreports.ExtentTest test) {
+        ScreenshotService.capture(page, info, test, ScreenshotService.Trigger.EXPLICIT);
+    }
+
     public static byte[] captureScreenshot(Page page) {
         if (page == null) return null;
         return page.screenshot(new Page.ScreenshotOptions().setFullPage(true));
@@ -0,0 +1,237 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Route;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Named request-blocking profiles applied with BrowserContext.route:
+ * <ul>
+ *   <li>full - nothing blocked (no route installed)</li>
+ *   <li>no-media - images stubbed with a 1x1 GIF, fonts and media aborted</li>
+ *   <li>minimal - no-media plus third-party requests (analytics, map tiles/scripts) stubbed or aborted</li>
+ * </ul>
+ * The profile comes from a @routing_&lt;name&gt; scenario tag, else routingProfile in the env properties.
+ * Requests matching the allow-list (jQuery, ASP.NET script handlers, loading spinners, routingAllowList)
+ * are never blocked because the waits in ExplicitWaitUtility depend on them.
+ *
+ * Bytes saved are estimated per resource type from Content-Length. Allowed responses give the sizes of what
+ * gets through. Blocked types are never downloaded, so the first blocked requests of each type without a size
+ * are probed with a HEAD request (routingSizeProbe, default true; never in HAR replay).
+ */
+public class RequestBlockingProfile {
+
+    public static final String FULL = "full";
+    public static final String NO_MEDIA = "no-media";
+    public static final String MINIMAL = "minimal";
+    private static final String TAG_PREFIX = "@routing_";
+
+    private static final Pattern DEFAULT_ALLOW_LIST = Pattern.compile(
+        "(?i)jquery|WebResource\\.axd|ScriptResource\\.axd|datepicker|bootstrap|loading|spinner|ajax-loader");
+    private static final Set<String> MEDIA_TYPES = new HashSet<>(Arrays.asList("image", "media", "font"));
+    private static final byte[] TRANSPARENT_GIF = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+    // HEAD probes per blocked type until one returns a Content-Length, and how long each may take
+    private static final int MAX_SIZE_PROBES = 3;
+    private static final int SIZE_PROBE_TIMEOUT_MS = 5000;
+
+    // Average response size per resource type, learned from allowed responses and size probes across the run
+    private static final Map<String, AtomicLong> observedBytes = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> observedCount = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> sizeProbes = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Pattern allowList;
+    private final String appHost;
+    private final boolean sizeProbe;
+    private final Map<String, AtomicInteger> blockedByType = new ConcurrentHashMap<>();
+    private final AtomicInteger allowedRequests = new AtomicInteger(0);
+    // Stubbed requests still raise a response event; these are excluded from the allowed counts
+    private final Set<Request> stubbedRequests = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Consumer<Response> responseListener = this::recordAllowedResponse;
+    private final Consumer<Route> routeHandler = this::handle;
+
+    private RequestBlockingProfile(String name) {
+        this.name = name;
+        String extraAllow = ConfigReader.getProperty("routingAllowList", "");
+        this.allowList = extraAllow.isEmpty() ? DEFAULT_ALLOW_LIST
+            : Pattern.compile(DEFAULT_ALLOW_LIST.pattern() + "|" + extraAllow);
+        this.appHost = hostOf(ConfigReader.getProperty("HotelBookerURL", ""));
+        // A probe goes to the network, which HAR replay must not touch
+        this.sizeProbe = ConfigReader.getBooleanProperty("routingSizeProbe", true) && !HarArchive.REPLAY.equals(HarArchive.getMode());
+    }
+
+    /**
+     * Resolve the profile for a scenario: @routing_<name> tag first, then routingProfile, then full
+     */
+    public static RequestBlockingProfile forScenario(Collection<String> tags) {
+        String profileName = ConfigReader.getProperty("routingProfile", FULL);
+        for (String tag : tags == null ? Collections.<String>emptyList() : tags) {
+            if (tag.toLowerCase().startsWith(TAG_PREFIX)) {
+                profileName = tag.substring(TAG_PREFIX.length());
+            }
+        }
+        profileName = profileName.toLowerCase();
+        if (!profileName.equals(FULL) && !profileName.equals(NO_MEDIA) && !profileName.equals(MINIMAL)) {
+            LoggerUtil.logWarn("Unknown routing profile '{}' - using full", profileName);
+            profileName = FULL;
+        }
+        return new RequestBlockingProfile(profileName);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Install the route and response listener on a context
+     */
+    public void apply(BrowserContext context) {
+        context.onResponse(responseListener);
+        if (!FULL.equals(name)) {
+            context.route("**/*", routeHandler);
+        }
+    }
+
+    /**
+     * Uninstall from a context that outlives the scenario (persistent profile)
+     */
+    public void remove(BrowserContext context) {
+        context.offResponse(responseListener);
+        if (!FULL.equals(name)) {
+            context.unroute("**/*", routeHandler);
+        }
+    }
+
+    // Allowed requests fall back to earlier routes (HAR replay) rather than going straight to the network
+    private void handle(Route route) {
+        Request request = route.request();
+        String url = request.url();
+        String type = request.resourceType();
+        if (allowList.matcher(url).find()) {
+            route.fallback();
+            return;
+        }
+        boolean thirdParty = !appHost.isEmpty() && !appHost.equalsIgnoreCase(hostOf(url));
+        if (MEDIA_TYPES.contains(type) || (MINIMAL.equals(name) && thirdParty)) {
+            blockedByType.computeIfAbsent(type, t -> new AtomicInteger()).incrementAndGet();
+            probeSize(route, type);
+            switch (type) {
+                case "image":
+                    stubbedRequests.add(request);
+                    route.fulfill(new Route.FulfillOptions().setStatus(200).setContentType("image/gif").setBodyBytes(TRANSPARENT_GIF));
+                    break;
+                case "script":
+                    stubbedRequests.add(request);
+                    // Stub rather than abort so inline callers of e.g. map/analytics globals do not see a load error
+                    route.fulfill(new Route.FulfillOptions().setStatus(200).setContentType("application/javascript").setBody(""));
+                    break;
+                default:
+                    route.abort();
+            }
+            return;
+        }
+        route.fallback();
+    }
+
+    private void recordAllowedResponse(Response response) {
+        if (stubbedRequests.remove(response.request())) {
+            return;
+        }
+        allowedRequests.incrementAndGet();
+        recordSize(response.request().resourceType(), response.headers().get("content-length"));
+    }
+
+    /**
+     * Size of a blocked type nothing has measured yet: HEAD the blocked URL with the request's own headers
+     */
+    private void probeSize(Route route, String type) {
+        if (!sizeProbe || hasSizeSample(type)
+            || sizeProbes.computeIfAbsent(type, t -> new AtomicInteger()).incrementAndGet() > MAX_SIZE_PROBES) {
+            return;
+        }
+        try {
+            APIResponse head = route.fetch(new Route.FetchOptions().setMethod("HEAD").setTimeout(SIZE_PROBE_TIMEOUT_MS));
+            recordSize(type, head.headers().get("content-length"));
+            head.dispose();
+        } catch (RuntimeException e) {
+            LoggerUtil.logDebug("Size probe failed for blocked {} {}: {}", type, route.request().url(), e.getMessage());
+        }
+    }
+
+    private static boolean hasSizeSample(String type) {
+        AtomicInteger samples = observedCount.get(type);
+        return samples != null && samples.get() > 0;
+    }
+
+    private static void recordSize(String type, String length) {
+        if (length == null) {
+            return;
+        }
+        try {
+            observedBytes.computeIfAbsent(type, t -> new AtomicLong()).addAndGet(Long.parseLong(length.trim()));
+            observedCount.computeIfAbsent(type, t -> new AtomicInteger()).incrementAndGet();
+        } catch (NumberFormatException e) {
+            // Ignore malformed header
+        }
+    }
+
+    /**
+     * Requests blocked in this context and the bytes that saved, estimated from the average Content-Length per
+     * resource type (allowed responses and size probes). A blocked type whose size is still unknown, because the
+     * probes were off or returned no Content-Length, is reported as unknown rather than counted as zero.
+     */
+    public String getSummary() {
+        int blocked = 0;
+        long estimatedBytes = 0;
+        StringBuilder byType = new StringBuilder();
+        StringBuilder estimatedTypes = new StringBuilder();
+        StringBuilder unknownTypes = new StringBuilder();
+        for (Map.Entry<String, AtomicInteger> entry : blockedByType.entrySet()) {
+            int count = entry.getValue().get();
+            blocked += count;
+            if (hasSizeSample(entry.getKey())) {
+                estimatedBytes += count * (observedBytes.get(entry.getKey()).get() / observedCount.get(entry.getKey()).get());
+                estimatedTypes.append(estimatedTypes.length() > 0 ? ", " : "").append(entry.getKey());
+            } else {
+                unknownTypes.append(unknownTypes.length() > 0 ? ", " : "").append(entry.getKey());
+            }
+            byType.append(byType.length() > 0 ? ", " : "").append(entry.getKey()).append('=').append(count);
+        }
+        String saved;
+        if (estimatedTypes.length() == 0) {
+            saved = blocked == 0 ? "0 KB saved" : "bytes saved unknown (no Content-Length for " + unknownTypes + ")";
+        } else {
+            saved = String.format("~%d KB saved (estimated for %s)", estimatedBytes / 1024, estimatedTypes)
+                + (unknownTypes.length() > 0 ? " plus unknown for " + unknownTypes : "");
+        }
+        return String.format("profile=%s, blocked %d requests [%s], %s, %d requests allowed",
+            name, blocked, byType, saved, allowedRequests.get());
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.sabre.hotelbooker.playwrightbase;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotType;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.extentreportutils.ExtentReportManager;
+import com.sabre.hotelbooker.extentreportutils.ResultJournal;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshots for the report, selected by screenshotPolicy:
+ * <ul>
+ *   <li>off - no screenshots at all</li>
+ *   <li>on-failure (default) - failed scenarios, plus the screenshots steps ask for explicitly</li>
+ *   <li>per-step - as on-failure, plus one after every step</li>
+ *   <li>sampled - as on-failure, plus one after every screenshotSampleEvery-th step</li>
+ * </ul>
+ * The browser encodes the image (screenshotFormat jpeg or png, screenshotJpegQuality, screenshotFullPage or
+ * just the viewport). Only that capture runs on the scenario thread: the frame is named by its SHA-256, so
+ * a frame identical to one already stored links to the existing file, and new frames are written to disk by
+ * a bounded background executor (screenshotWriterThreads, screenshotQueueSize; a full queue makes the
+ * scenario thread write the file itself).
+ */
+public class ScreenshotService {
+
+    /**
+     * Why a screenshot is taken
+     */
+    public enum Trigger {
+        // Asked for by step code
+        EXPLICIT,
+        // Scenario failed
+        FAILURE,
+        // Automatic capture after a step
+        STEP
+    }
+
+    private static final String SCREENSHOT_FOLDER = "Screenshot";
+
+    // Stored frames by content hash -> path relative to the report dir
+    private static final Map<String, String> storedFrames = new ConcurrentHashMap<>();
+    private static final AtomicLong stepCounter = new AtomicLong();
+
+    private static final AtomicInteger captured = new AtomicInteger();
+    private static final AtomicInteger deduplicated = new AtomicInteger();
+    private static final AtomicInteger skipped = new AtomicInteger();
+    private static final AtomicInteger writeFailures = new AtomicInteger();
+    private static final AtomicLong captureMs = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+
+    private static final ThreadPoolExecutor writer = createWriter();
+
+    private ScreenshotService() {
+    }
+
+    /**
+     * Take a screenshot if the policy wants one for this trigger and link it from the report
+     * (the given ExtentTest when the live report is on, and the scenario's journal node)
+     */
+    public static void capture(Page page, String info, ExtentTest test, Trigger trigger) {
+        if (page == null) {
+            return;
+        }
+        if (!isWanted(trigger)) {
+            skipped.incrementAndGet();
+            return;
+        }
+        String relativePath = captureFrame(page, trigger);
+        if (relativePath == null) {
+            return;
+        }
+        String entry = info + " <a href='" + relativePath + "' target='_blank'>Screenshot</a>";
+        ResultJournal.logCurrent(Status.INFO, entry);
+        if (test != null) {
+            test.info(entry);
+        } else if (ResultJournal.getCurrentNode() == null) {
+            LoggerUtil.logWarn("No report node for screenshot '{}' ({})", info, relativePath);
+        }
+    }
+
+    /**
+     * Whether the policy takes a screenshot for this trigger; automatic step captures are counted for sampling
+     */
+    public static boolean isWanted(Trigger trigger) {
+        String policy = ConfigReader.getProperty("screenshotPolicy", "on-failure").trim().toLowerCase(Locale.ROOT);
+        if ("off".equals(policy)) {
+            return false;
+        }
+        if (trigger != Trigger.STEP) {
+            return true;
+        }
+        switch (policy) {
+            case "per-step":
+                return true;
+            case "sampled":
+                int every = Math.max(1, ConfigReader.getIntProperty("screenshotSampleEvery", 10));
+                return stepCounter.incrementAndGet() % every == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Capture on the calling thread and hand the write to the background executor
+     * @return path of the stored frame relative to the report dir, or null when the capture failed
+     */
+    private static String captureFrame(Page page, Trigger trigger) {
+        boolean jpeg = !"png".equalsIgnoreCase(ConfigReader.getProperty("screenshotFormat", "jpeg").trim());
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
+            .setFullPage(ConfigReader.getBooleanProperty("screenshotFullPage", false))
+            .setType(jpeg ? ScreenshotType.JPEG : ScreenshotType.PNG);
+        if (jpeg) {
+            options.setQuality(ConfigReader.getIntProperty("screenshotJpegQuality", 70));
+        }
+
+        byte[] frame;
+        long start = System.currentTimeMillis();
+        try {
+            frame = page.screenshot(options);
+        } catch (RuntimeException e) {
+            LoggerUtil.logWarn("Screenshot ({}) failed: {}", trigger, e.getMessage());
+            return null;
+        } finally {
+            captureMs.addAndGet(System.currentTimeMillis() - start);
+        }
+        captured.incrementAndGet();
+
+        String hash = sha256(frame);
+        String fileName = hash.substring(0, 20) + (jpeg ? ".jpg" : ".png");
+        String relativePath = SCREENSHOT_FOLDER + "/" + fileName;
+        if (storedFrames.putIfAbsent(hash, relativePath) != null) {
+            deduplicated.incrementAndGet();
+            return storedFrames.get(hash);
+        }
+        Path target = Paths.get(getReportDir(), SCREENSHOT_FOLDER, fileName);
+        writer.execute(() -> write(hash, target, frame));
+        return relativePath;
+    }
+
+    private static void write(String hash, Path target, byte[] frame) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.write(target, frame);
+            bytesWritten.addAndGet(frame.length);
+        } catch (IOException e) {
+            writeFailures.incrementAndGet();
+            // Let the next identical frame try again
+            storedFrames.remove(hash);
+            LoggerUtil.logWarn("Could not write screenshot {}: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for queued screenshot writes; call before the report is finalised
+     */
+    public static void awaitWrites() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(60, TimeUnit.SECONDS)) {
+                LoggerUtil.logWarn("Screenshot writes still pending after 60 s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static String getStatsSummary() {
+        return String.format("%d captured (%d identical frames stored once), %d skipped by policy, %.1f MB written, %d ms capturing%s",
+            captured.get(), deduplicated.get(), skipped.get(), bytesWritten.get() / (1024.0 * 1024.0), captureMs.get(),
+            writeFailures.get() > 0 ? ", " + writeFailures.get() + " writes failed" : "");
+    }
+
+    private static ThreadPoolExecutor createWriter() {
+        int threads = Math.max(1, ConfigReader.getIntProperty("screenshotWriterThreads", 2));
+        int queueSize = Math.max(1, ConfigReader.getIntProperty("screenshotQueueSize", 32));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            // Queue full (or writer already shut down): write on the calling thread
+            (runnable, rejectedBy) -> runnable.run());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static String getReportDir() {
+        String reportDir = ExtentReportManager.reportDir;
+        if (reportDir == null) {
+            // fallback if reportDir is not initialized
+            String date = new SimpleDateFormat("ddMMMyy").format(new Date()).toUpperCase();
+            String time = new SimpleDateFormat("HHmmss").format(new Date());
+            reportDir = "reports" + File.separator + date + File.separator + time;
+        }
+        return reportDir;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
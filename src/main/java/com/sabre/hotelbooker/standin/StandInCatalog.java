@@ -0,0 +1,119 @@
+package com.sabre.hotelbooker.standin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Deterministic hotel and rate data for the stand-in. The same settings always produce the same hotels,
+ * providers, rates and prices, so timings from different runs are comparable.
+ */
+class StandInCatalog {
+
+    static final String[] PROVIDERS = {"Sabre", "Booking.com", "Expedia", "Hotels.com", "Amadeus", "Galileo"};
+    static final String[] CLIENTS = {
+        "Test QA Client (PTI-Amadeus)", "Test QA Client(Bcom)", "Test QA Client(EPS Rapid)",
+        "Test QA Client(PTI)", "Test QA Client(Sabre)", "Test QA Client(TravelFusion)"
+    };
+    static final String[] COUNTRIES = {"USA", "India", "United Kingdom", "France", "Germany", "Canada"};
+    static final String[] DISTANCES = {"1 Mile", "5 Miles", "10 Miles", "20 Miles", "50 Miles"};
+
+    private static final String[] BRANDS = {
+        "Holiday Inn", "Hilton Garden Inn", "Marriott", "Hyatt Place", "Sheraton",
+        "Courtyard", "Hampton Inn", "Embassy Suites", "Omni", "Westin"
+    };
+    private static final String[] AREAS = {"Downtown", "Airport", "Convention Center", "Uptown", "North", "Galleria"};
+    private static final String[] ROOM_TYPES = {"King Room", "Queen Room", "Twin Room", "Suite", "Family Room/Suite", "Superior Room"};
+    private static final String[] RATE_PLANS = {"Regular Rate", "Prepay Nonref", "Breakfast Included", "Experiences", "Sporting", "Attraction"};
+    private static final String[] TAGS = {"Free WiFi", "Pool", "Parking", "Fitness Center", "Restaurant", "Pet Friendly"};
+
+    static final class Hotel {
+        final int index;
+        final String name;
+        final String address;
+        final String phone;
+        final String fax;
+        final int miles;
+        final List<String> tags;
+        final List<String> providers;
+
+        private Hotel(int index, String name, String address, String phone, String fax, int miles, List<String> tags, List<String> providers) {
+            this.index = index;
+            this.name = name;
+            this.address = address;
+            this.phone = phone;
+            this.fax = fax;
+            this.miles = miles;
+            this.tags = tags;
+            this.providers = providers;
+        }
+    }
+
+    static final class Rate {
+        final String provider;
+        final String roomType;
+        final String ratePlan;
+        final boolean refundable;
+        final String price;
+
+        private Rate(String provider, String roomType, String ratePlan, boolean refundable, String price) {
+            this.provider = provider;
+            this.roomType = roomType;
+            this.ratePlan = ratePlan;
+            this.refundable = refundable;
+            this.price = price;
+        }
+    }
+
+    private final StandInSettings settings;
+
+    StandInCatalog(StandInSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Hotels on a 1-based results page
+     */
+    List<Hotel> getHotels(String location, int page) {
+        List<Hotel> hotels = new ArrayList<>();
+        int first = (page - 1) * settings.getPageSize();
+        int last = Math.min(settings.hotelCount, first + settings.getPageSize());
+        for (int i = first; i < last; i++) {
+            hotels.add(getHotel(location, i));
+        }
+        return hotels;
+    }
+
+    Hotel getHotel(String location, int index) {
+        String name = BRANDS[index % BRANDS.length] + " " + location + " " + AREAS[(index / BRANDS.length) % AREAS.length]
+            + (index >= BRANDS.length * AREAS.length ? " " + (index / (BRANDS.length * AREAS.length) + 1) : "");
+        String address = (100 + index * 7) + " Main Street, " + location;
+        String phone = String.format("Phone: +1 214-555-%04d", index);
+        String fax = String.format("Fax: +1 214-556-%04d", index);
+        List<String> tags = new ArrayList<>();
+        for (int t = 0; t < 1 + index % 3; t++) {
+            tags.add(TAGS[(index + t) % TAGS.length]);
+        }
+        List<String> providers = new ArrayList<>();
+        for (int p = 0; p < settings.providersPerHotel; p++) {
+            providers.add(PROVIDERS[(index + p) % PROVIDERS.length]);
+        }
+        return new Hotel(index, name, address, phone, fax, 1 + index % 20, tags, providers);
+    }
+
+    /**
+     * Rates for a hotel: ratesPerProvider per provider, alternating refundable and non-refundable
+     */
+    List<Rate> getRates(Hotel hotel) {
+        List<Rate> rates = new ArrayList<>();
+        for (String provider : hotel.providers) {
+            for (int r = 0; r < settings.ratesPerProvider; r++) {
+                int seed = hotel.index * 31 + provider.length() * 7 + r;
+                boolean refundable = r % 2 == 1;
+                String price = String.format(Locale.US, "USD %.2f", 79 + (seed * 13) % 400 + (seed % 100) / 100.0);
+                rates.add(new Rate(provider, ROOM_TYPES[seed % ROOM_TYPES.length], RATE_PLANS[seed % RATE_PLANS.length], refundable, price));
+            }
+        }
+        return rates;
+    }
+}
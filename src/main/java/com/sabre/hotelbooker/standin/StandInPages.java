@@ -0,0 +1,242 @@
+package com.sabre.hotelbooker.standin;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * HTML for the stand-in pages. Element ids, classes and nesting follow what the page objects locate on
+ * the real HotelBooker pages (ASP.NET ctl00_* ids, hotel card/rate structure, page= pagination).
+ */
+class StandInPages {
+
+    private StandInPages() {
+    }
+
+    static String login(String error) {
+        return layout("HotelBooker - Login", null,
+            "<form method='post' action='/Login.aspx' id='aspnetForm'>" + viewState()
+                + "<div class='login-box'><h3>Sign in to HotelBooker</h3>"
+                + (error != null ? "<div class='alert alert-danger'>" + escape(error) + "</div>" : "")
+                + "<label for='ctl00_cphMainContent_txtUserName'>Username</label>"
+                + "<input type='text' id='ctl00_cphMainContent_txtUserName' name='ctl00$cphMainContent$txtUserName' class='form-control'/>"
+                + "<label for='ctl00_cphMainContent_txtPassword'>Password</label>"
+                + "<input type='password' id='ctl00_cphMainContent_txtPassword' name='ctl00$cphMainContent$txtPassword' class='form-control'/>"
+                + "<input type='submit' id='ctl00_cphMainContent_btnLogin' name='ctl00$cphMainContent$btnLogin' value='Login' class='btn btn-primary'/>"
+                + "</div></form>");
+    }
+
+    static String search(String client) {
+        StringBuilder body = new StringBuilder();
+        body.append("<form method='post' action='/Search.aspx' id='aspnetForm'>").append(viewState())
+            .append("<div class='search-box'>")
+            .append(select("ctl00_lstCountry", "-- Select Country --", StandInCatalog.COUNTRIES))
+            .append("<input type='text' id='ctl00_txtLocation' name='ctl00$txtLocation' placeholder='Place, address or airport' class='form-control'/>")
+            .append("<input type='text' id='ctl00_txtHotelName' name='ctl00$txtHotelName' placeholder='Hotel name' class='form-control'/>")
+            .append(select("ctl00_lstDistance", null, StandInCatalog.DISTANCES))
+            .append("<div class='date-field'><input type='text' id='ctl00_txtArrivalDate' name='ctl00$txtArrivalDate' class='form-control' autocomplete='off' onclick='dpOpen()'/>")
+            .append("<div class='datepicker' id='datepicker' style='display:none'><div class='datepicker-days'></div></div></div>")
+            .append("<input type='text' id='ctl00_txtNights' name='ctl00$txtNights' value='1' class='form-control'/>")
+            .append(select("ctl00_lstRooms", null, new String[]{"1", "2", "3", "4", "5"}))
+            .append(select("ctl00_lstOccupancy", null, new String[]{"1", "2", "3", "4"}))
+            .append("<input type='submit' id='ctl00_btnSearch' name='ctl00$btnSearch' value='Search' class='btn btn-primary'/>")
+            .append("</div></form>");
+        // Shown straight after login until a client is chosen; #lnkClientSelect reopens it
+        body.append("<div class='modal' id='clientModal' style='display:").append(client == null ? "block" : "none").append("'>")
+            .append("<div class='modal-dialog'><div class='modal-content'><div class='modal-header'>")
+            .append("<button type='button' class='close' aria-label='Close' onclick='closeClientModal()'>&times;</button>")
+            .append("<h4>Select Client</h4></div><div class='modal-body'>")
+            .append("<input type='text' placeholder='Filter Client List' class='form-control' oninput='filterClients(this.value)'/>")
+            .append("<button type='button' class='btn'>Client Groups</button><button type='button' class='btn'>Action List</button>")
+            .append("<button type='button' class='btn'>All Clients</button>");
+        for (String name : StandInCatalog.CLIENTS) {
+            body.append("<h2 class='client' onclick='selectClient(this)'>").append(escape(name)).append("</h2>");
+        }
+        body.append("</div></div></div></div>");
+        return layout("HotelBooker - Search", client, body.toString());
+    }
+
+    static String availability(StandInSettings settings, StandInCatalog catalog, String client, String location, int page) {
+        int pages = settings.getEffectivePageCount();
+        List<StandInCatalog.Hotel> hotels = catalog.getHotels(location, page);
+        StringBuilder body = new StringBuilder();
+        body.append("<h1>").append(escape(location)).append(": ").append(settings.hotelCount).append(" properties found</h1>")
+            .append("<p>Returned ").append(settings.hotelCount).append(" hotels in ").append(escape(location)).append(" - Location</p>")
+            .append("<label>Sort</label><select id='ctl00_cphMainContent_ddlSort' name='ctl00$cphMainContent$ddlSort'>")
+            .append("<option>Distance</option><option>Price (low to high)</option><option>Price (high to low)</option><option>Hotel Name</option></select>");
+        // pnlPageingControls > div > div > a is what the page objects read as the page links, > span as the current page
+        body.append("<div id='ctl00_cphMainContent_pnlPageingControls'><div><strong>Pages:</strong><div>");
+        if (page > 1) {
+            body.append("<a href='").append(escape(availabilityUrl(location, page - 1))).append("' class='prev'>Previous</a> ");
+        }
+        // Like the live site, the current page is plain text rather than a link
+        for (int p = 1; p <= pages; p++) {
+            if (p == page) {
+                body.append("<span class='current'>").append(p).append("</span> ");
+            } else {
+                body.append("<a href='").append(escape(availabilityUrl(location, p))).append("'>").append(p).append("</a> ");
+            }
+        }
+        if (page < pages) {
+            body.append("<a href='").append(escape(availabilityUrl(location, page + 1))).append("' class='next'>Next</a>");
+        }
+        body.append("</div></div></div>");
+        body.append("<div id='ctl00_cphMainContent_pnlHotels'>");
+        if (hotels.isEmpty()) {
+            body.append("<p>Sorry, we weren't able to find any hotels for the criteria you specified.</p>");
+        }
+        for (StandInCatalog.Hotel hotel : hotels) {
+            body.append(hotelCard(hotel, location));
+        }
+        body.append("</div>");
+        return layout("HotelBooker - Availability", client, body.toString());
+    }
+
+    private static String hotelCard(StandInCatalog.Hotel hotel, String location) {
+        int i = hotel.index;
+        StringBuilder card = new StringBuilder();
+        card.append("<div class='hotelResult solid-border spacer-10top'>")
+            .append("<img src='/Images/hotel_").append(i % 10).append(".gif' alt='Hotel photo' class='hotel-photo'/>")
+            .append("<div><a id='hotelNameLink_").append(i).append("' href='#'>").append(escape(hotel.name)).append("</a></div>")
+            .append("<div class='hotelAddress'>").append(escape(hotel.address)).append("</div>")
+            .append("<div class='hotelContactDetails'>").append(hotel.phone).append(" ").append(hotel.fax).append("</div>")
+            .append("<div id='LocationDetails'>").append(hotel.miles).append(" Miles from ").append(escape(location)).append("</div>")
+            .append("<span class='star-rating'>").append(3 + i % 3).append(" stars</span>")
+            .append("<div id='divTags'><ul class='nav nav-pills'>");
+        for (String tag : hotel.tags) {
+            card.append("<li>").append(escape(tag)).append("</li>");
+        }
+        card.append("</ul></div><div class='activeContentProviderRow'><span>Active Content Providers</span><ul class='list-inline'>");
+        for (String provider : hotel.providers) {
+            card.append("<li>").append(escape(provider)).append("</li>");
+        }
+        card.append("</ul></div>")
+            .append("<input type='checkbox' name='Compare_").append(i).append("'/><label>Compare</label> ")
+            .append("<a href='#' class='btn btn-primary btn-lg white-font' onclick=\"return toggleAvailability(").append(i)
+            .append(", '").append(urlEncode(location)).append("', this)\">Check Availability</a>")
+            .append("<div id='loading_").append(i).append("' style='display:none'>Checking Availability <img src='/Images/ajax-loader.gif' alt='Rates loading'/></div>")
+            .append("<div id='rates_").append(i).append("' class='hotelAvailability' style='display:none'></div>")
+            .append("</div>");
+        return card.toString();
+    }
+
+    /**
+     * Rates fragment loaded into rates_&lt;hotel&gt;: rates_N > div > div.product per rate
+     */
+    static String rates(StandInCatalog.Hotel hotel, List<StandInCatalog.Rate> rates) {
+        StringBuilder html = new StringBuilder("<div class='rateList'>");
+        for (int k = 0; k < rates.size(); k++) {
+            StandInCatalog.Rate rate = rates.get(k);
+            String id = hotel.index + "_" + k;
+            String policy = rate.refundable
+                ? "Refundable - free cancellation until 48 hours before arrival."
+                : "Non-Refundable - the full stay is charged at booking.";
+            html.append("<div class='product onlineRate'>")
+                .append("<div class='roomType'>").append(escape(rate.roomType)).append("</div>")
+                .append("<div class='rateDescription'><b><big>(").append(escape(rate.provider)).append(")</big></b> Online Rate")
+                .append("<p class='policy'>").append(escape(rate.ratePlan)).append("</p></div>")
+                .append("<div class='ratePrice'><h4>").append(rate.price).append("</h4>per room, per night</div>")
+                .append("<a id='rateInfoLink").append(id).append("' href='#' onclick=\"return toggleRateInfo('").append(id).append("', true)\">Full Rate Information</a>")
+                .append("<div class='productFullInfo' id='rateInfo_").append(id).append("' style='display:none'>")
+                .append("<strong>Rate Information</strong><p>").append(escape(rate.ratePlan)).append(" from ").append(escape(rate.provider)).append("</p>")
+                .append("<strong>Cancellation Policy</strong><div id='divCancellationPolicy'><p>").append(policy).append("</p></div>")
+                .append("<strong>Deposit Policy</strong><p>").append(rate.refundable ? "No deposit required." : "Full prepayment.").append("</p>")
+                .append("<strong>Rate Breakdown</strong><p>1 night at ").append(rate.price).append("</p>")
+                .append("<a href='#' onclick=\"return toggleRateInfo('").append(id).append("', false)\">Less Information</a></div>")
+                .append("<a id='selectRate").append(id).append("' href='/Booking.aspx?hotel=").append(hotel.index).append("&amp;rate=").append(k)
+                .append("' class='btn btn-success'>Select Rate</a>")
+                .append("</div>");
+        }
+        return html.append("</div>").toString();
+    }
+
+    static String booking(String client, String hotelName, StandInCatalog.Rate rate) {
+        return layout("HotelBooker - Booking", client,
+            "<h1>Booking Summary</h1><div class='bookingSummary'><p>" + escape(hotelName) + "</p><p>"
+                + (rate != null ? escape(rate.roomType) + " - " + escape(rate.provider) + " - " + rate.price : "Rate not found") + "</p></div>");
+    }
+
+    static String availabilityUrl(String location, int page) {
+        return "/Availability.aspx?location=" + urlEncode(location) + "&page=" + page;
+    }
+
+    private static String layout(String title, String client, String body) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html><html><head><meta charset='utf-8'/><title>").append(title).append("</title>")
+            .append("<link rel='stylesheet' href='/Content/site.css'/><script src='/Scripts/hotelbooker.js'></script></head><body>");
+        // Every page but the login page has the user menu and the client link (client is null until one is chosen)
+        if (!title.endsWith("Login")) {
+            html.append("<div class='header'><ul id='lstUserMenu' class='nav'><li>My Account</li><li><a href='/Logout.aspx'>Logout</a></li></ul>")
+                .append("<a id='lnkClientSelect' href='#' onclick='return openClientModal()'>")
+                .append(client == null ? "Select Client" : escape(client)).append("</a></div>");
+        }
+        return html.append("<div class='container'>").append(body).append("</div></body></html>").toString();
+    }
+
+    private static String select(String id, String placeholder, String[] options) {
+        StringBuilder html = new StringBuilder("<select id='").append(id).append("' name='").append(id.replace('_', '$')).append("' class='form-control'>");
+        if (placeholder != null) {
+            html.append("<option value=''>").append(placeholder).append("</option>");
+        }
+        for (String option : options) {
+            html.append("<option>").append(escape(option)).append("</option>");
+        }
+        return html.append("</select>").toString();
+    }
+
+    // A fresh view state on every render, like the real post-backs
+    private static String viewState() {
+        return "<input type='hidden' name='__VIEWSTATE' id='__VIEWSTATE' value='" + UUID.randomUUID() + "'/>"
+            + "<input type='hidden' name='__EVENTVALIDATION' id='__EVENTVALIDATION' value='" + UUID.randomUUID() + "'/>";
+    }
+
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;").replace("\"", "&quot;");
+    }
+
+    static String urlEncode(String text) {
+        try {
+            return URLEncoder.encode(text, StandardCharsets.UTF_8.name());
+        } catch (java.io.UnsupportedEncodingException e) {
+            return text;
+        }
+    }
+
+    static final String STYLESHEET =
+        "body{font-family:Arial,sans-serif;margin:0}.container{padding:16px}.header{background:#1c3f6e;color:#fff;padding:8px 16px}"
+        + ".header a{color:#fff}#lstUserMenu{float:right;list-style:none;margin:0}#lstUserMenu li{display:inline;margin-left:12px}"
+        + ".form-control{display:block;margin:6px 0;padding:4px;width:300px}.btn{margin:4px;padding:6px 12px;cursor:pointer}"
+        + ".modal{position:fixed;top:0;left:0;right:0;bottom:0;background:rgba(0,0,0,.4)}"
+        + ".modal-dialog{background:#fff;margin:60px auto;width:520px;padding:16px}.client{cursor:pointer;font-size:18px}"
+        + ".datepicker{position:absolute;background:#fff;border:1px solid #ccc;padding:4px;z-index:10}"
+        + ".datepicker td,.datepicker th{padding:4px 6px;text-align:center;cursor:pointer}.datepicker .old,.datepicker .new{color:#aaa}"
+        + ".hotelResult{border:1px solid #ccc;margin:10px 0;padding:10px}.nav-pills li,.list-inline li{display:inline;margin-right:8px}"
+        + ".product{border-top:1px dashed #ddd;padding:6px 0}.ratePrice h4{margin:4px 0}"
+        + "#ctl00_cphMainContent_pnlPageingControls a,#ctl00_cphMainContent_pnlPageingControls span{margin-right:6px}#ctl00_cphMainContent_pnlPageingControls span.current{font-weight:bold}";
+
+    static final String SCRIPT =
+        "function openClientModal(){document.getElementById('clientModal').style.display='block';return false;}\n"
+        + "function closeClientModal(){document.getElementById('clientModal').style.display='none';}\n"
+        + "function selectClient(el){location.href='/Search.aspx?client='+encodeURIComponent(el.textContent.trim());}\n"
+        + "function filterClients(text){document.querySelectorAll('h2.client').forEach(function(h){"
+        + "h.style.display=h.textContent.toLowerCase().indexOf(text.toLowerCase())>=0?'':'none';});}\n"
+        + "var MONTHS=['January','February','March','April','May','June','July','August','September','October','November','December'];\n"
+        + "var dpView=null;\n"
+        + "function dpOpen(){var now=new Date();document.getElementById('datepicker').style.display='block';dpRender(now.getFullYear(),now.getMonth());}\n"
+        + "function dpMove(step){var m=dpView.m+step;dpRender(dpView.y+Math.floor(m/12),(m%12+12)%12);}\n"
+        + "function dpPick(d){var m=dpView.m+1;document.getElementById('ctl00_txtArrivalDate').value=(m<10?'0':'')+m+'/'+(d<10?'0':'')+d+'/'+dpView.y;"
+        + "document.getElementById('datepicker').style.display='none';}\n"
+        + "function dpRender(y,m){dpView={y:y,m:m};var start=new Date(y,m,1).getDay(),days=new Date(y,m+1,0).getDate(),prev=new Date(y,m,0).getDate();"
+        + "var h='<table><thead><tr><th class=\"prev\" onclick=\"dpMove(-1)\">&laquo;</th><th colspan=\"5\" class=\"datepicker-switch\">'+MONTHS[m]+' '+y+'</th>"
+        + "<th class=\"next\" onclick=\"dpMove(1)\">&raquo;</th></tr></thead><tbody><tr>';"
+        + "for(var i=0;i<start;i++){h+='<td class=\"old day\">'+(prev-start+1+i)+'</td>';}"
+        + "for(var d=1;d<=days;d++){if(d>1&&(start+d-1)%7===0){h+='</tr><tr>';}h+='<td class=\"day\" onclick=\"dpPick('+d+')\">'+d+'</td>';}"
+        + "for(var c=start+days,n=1;c%7!==0;c++){h+='<td class=\"new day\">'+(n++)+'</td>';}"
+        + "document.querySelector('.datepicker-days').innerHTML=h+'</tr></tbody></table>';}\n"
+        + "function toggleAvailability(i,loc,btn){var box=document.getElementById('rates_'+i),loading=document.getElementById('loading_'+i);"
+        + "if(btn.textContent.trim()==='Hide Availability'){box.style.display='none';box.innerHTML='';btn.textContent='Check Availability';return false;}"
+        + "loading.style.display='block';fetch('/api/rates?hotel='+i+'&location='+loc).then(function(r){return r.text();}).then(function(html){"
+        + "loading.style.display='none';box.innerHTML=html;box.style.display='block';btn.textContent='Hide Availability';});return false;}\n"
+        + "function toggleRateInfo(id,open){document.getElementById('rateInfo_'+id).style.display=open?'block':'none';return false;}\n";
+}
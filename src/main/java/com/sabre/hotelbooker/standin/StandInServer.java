@@ -0,0 +1,323 @@
+package com.sabre.hotelbooker.standin;
+
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the HotelBooker site on com.sun.net.httpserver, so the page objects can be run
+ * and timed without the shared CERT environment.
+ *
+ * Enabled with standInServer=true (see env/LOCAL.properties); the hooks start it before the first scenario
+ * and stop it after the run. It can also be started on its own for manual profiling:
+ * mvn exec:java -Dexec.mainClass=com.sabre.hotelbooker.standin.StandInServer -Denv=LOCAL
+ *
+ * Any non-empty username/password logs in. Sessions live in memory and use the ASP.NET_SessionId cookie,
+ * so cached login sessions survive between scenarios but not a server restart.
+ */
+public class StandInServer {
+
+    private static final String SESSION_COOKIE = "ASP.NET_SessionId";
+    private static final String NO_CLIENT = "";
+    private static final byte[] PLACEHOLDER_GIF = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+    private static final int WORKER_THREADS = 16;
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+    private static StandInSettings settings;
+    private static StandInCatalog catalog;
+
+    // Session id -> selected client (NO_CLIENT until one is chosen)
+    private static final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // Requests and handling time (including the configured delay) per endpoint
+    private static final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> requestMillis = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("standInServer", false);
+    }
+
+    /**
+     * Start the server once; later calls are no-ops
+     */
+    public static synchronized void ensureStarted() {
+        if (server != null) return;
+        settings = StandInSettings.fromConfig();
+        catalog = new StandInCatalog(settings);
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", settings.port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not start the HotelBooker stand-in on port " + settings.port, e);
+        }
+        executor = Executors.newFixedThreadPool(WORKER_THREADS);
+        server.setExecutor(executor);
+        server.createContext("/", StandInServer::handle);
+        server.start();
+        LoggerUtil.logInfo("HotelBooker stand-in started on http://localhost:{}/ ({})", settings.port, settings);
+    }
+
+    public static synchronized void stop() {
+        if (server == null) return;
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        sessions.clear();
+        LoggerUtil.logInfo("HotelBooker stand-in stopped: {}", getStatsSummary());
+    }
+
+    /**
+     * Requests served and average handling time per endpoint
+     */
+    public static String getStatsSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, AtomicInteger> entry : new TreeMap<>(requestCounts).entrySet()) {
+            int count = entry.getValue().get();
+            long avg = count > 0 ? requestMillis.get(entry.getKey()).get() / count : 0;
+            summary.append(summary.length() > 0 ? ", " : "").append(entry.getKey()).append('=').append(count).append(" (avg ").append(avg).append(" ms)");
+        }
+        return (settings != null ? settings + "; " : "") + "requests: " + (summary.length() > 0 ? summary : "none");
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        long start = System.currentTimeMillis();
+        String path = exchange.getRequestURI().getPath().toLowerCase();
+        String endpoint = endpointFor(path);
+        try {
+            delay(endpoint);
+            route(exchange, path);
+        } catch (RuntimeException e) {
+            LoggerUtil.logError("Stand-in failed to serve {}: {}", path, e.getMessage());
+            send(exchange, 500, "text/plain", "Stand-in error: " + e.getMessage());
+        } finally {
+            requestCounts.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+            requestMillis.computeIfAbsent(endpoint, k -> new AtomicLong()).addAndGet(System.currentTimeMillis() - start);
+            exchange.close();
+        }
+    }
+
+    private static void route(HttpExchange exchange, String path) throws IOException {
+        boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        String sessionId = getSessionId(exchange);
+        String client = sessionId != null ? sessions.get(sessionId) : null;
+        boolean loggedIn = client != null;
+
+        switch (path) {
+            case "/":
+            case "/login.aspx":
+                if (post) {
+                    Map<String, String> form = parseForm(readBody(exchange));
+                    String user = form.getOrDefault("ctl00$cphMainContent$txtUserName", "");
+                    String password = form.getOrDefault("ctl00$cphMainContent$txtPassword", "");
+                    if (user.trim().isEmpty() || password.isEmpty()) {
+                        sendHtml(exchange, StandInPages.login("Please enter your username and password."));
+                        return;
+                    }
+                    String newSession = UUID.randomUUID().toString();
+                    sessions.put(newSession, NO_CLIENT);
+                    exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + newSession + "; Path=/; HttpOnly");
+                    redirect(exchange, "/Search.aspx");
+                } else if (loggedIn) {
+                    redirect(exchange, "/Search.aspx");
+                } else {
+                    sendHtml(exchange, StandInPages.login(null));
+                }
+                return;
+            case "/logout.aspx":
+                if (sessionId != null) sessions.remove(sessionId);
+                redirect(exchange, "/Login.aspx");
+                return;
+            default:
+                break;
+        }
+
+        if (path.startsWith("/content/") || path.startsWith("/scripts/") || path.startsWith("/images/")) {
+            serveStatic(exchange, path);
+            return;
+        }
+        if (!loggedIn) {
+            redirect(exchange, "/Login.aspx");
+            return;
+        }
+        String currentClient = NO_CLIENT.equals(client) ? null : client;
+        switch (path) {
+            case "/search.aspx":
+                if (query.containsKey("client")) {
+                    sessions.put(sessionId, query.get("client"));
+                    redirect(exchange, "/Search.aspx");
+                } else if (post) {
+                    String location = parseForm(readBody(exchange)).getOrDefault("ctl00$txtLocation", "").trim();
+                    redirect(exchange, StandInPages.availabilityUrl(location.isEmpty() ? "Dallas" : location, 1));
+                } else {
+                    sendHtml(exchange, StandInPages.search(currentClient));
+                }
+                return;
+            case "/availability.aspx": {
+                int page = Math.max(1, Math.min(settings.getEffectivePageCount(), parseInt(query.get("page"), 1)));
+                sendHtml(exchange, StandInPages.availability(settings, catalog, currentClient, location(query), page));
+                return;
+            }
+            case "/api/rates": {
+                StandInCatalog.Hotel hotel = catalog.getHotel(location(query), parseInt(query.get("hotel"), 0));
+                sendHtml(exchange, StandInPages.rates(hotel, catalog.getRates(hotel)));
+                return;
+            }
+            case "/booking.aspx": {
+                StandInCatalog.Hotel hotel = catalog.getHotel(location(query), parseInt(query.get("hotel"), 0));
+                List<StandInCatalog.Rate> rates = catalog.getRates(hotel);
+                int rateIndex = parseInt(query.get("rate"), 0);
+                sendHtml(exchange, StandInPages.booking(currentClient, hotel.name, rateIndex < rates.size() ? rates.get(rateIndex) : null));
+                return;
+            }
+            default:
+                send(exchange, 404, "text/html; charset=utf-8", "<html><body><h1>404 Not Found</h1></body></html>");
+        }
+    }
+
+    private static void serveStatic(HttpExchange exchange, String path) throws IOException {
+        // Long-lived like the real bundles, so the persistent profile cache has something to keep
+        exchange.getResponseHeaders().add("Cache-Control", "public, max-age=86400");
+        if (path.endsWith(".css")) {
+            send(exchange, 200, "text/css", StandInPages.STYLESHEET);
+        } else if (path.endsWith(".js")) {
+            send(exchange, 200, "application/javascript", StandInPages.SCRIPT);
+        } else if (path.startsWith("/images/")) {
+            exchange.getResponseHeaders().add("Content-Type", "image/gif");
+            sendBytes(exchange, 200, PLACEHOLDER_GIF);
+        } else {
+            send(exchange, 404, "text/plain", "Not found");
+        }
+    }
+
+    private static String endpointFor(String path) {
+        if (path.equals("/") || path.startsWith("/login") || path.startsWith("/logout")) return "login";
+        if (path.startsWith("/search")) return "search";
+        if (path.startsWith("/availability")) return "availability";
+        if (path.startsWith("/api/rates")) return "rates";
+        if (path.startsWith("/booking")) return "booking";
+        return "static";
+    }
+
+    private static void delay(String endpoint) {
+        int delayMs = settings.getDelayMs(endpoint);
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String location(Map<String, String> query) {
+        String location = query.getOrDefault("location", "").trim();
+        return location.isEmpty() ? "Dallas" : location;
+    }
+
+    private static String getSessionId(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies == null) return null;
+        for (String header : cookies) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody(); ByteArrayOutputStream buffer = new ByteArrayOutputStream()) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) return values;
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+            }
+        }
+        return values;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void sendHtml(HttpExchange exchange, String html) throws IOException {
+        send(exchange, 200, "text/html; charset=utf-8", html);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        sendBytes(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendBytes(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        if ("HEAD".equalsIgnoreCase(exchange.getRequestMethod())) {
+            // HttpServer drops the length of a HEAD response; a real server reports the size of the GET body
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(bytes.length));
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ensureStarted();
+        Runtime.getRuntime().addShutdownHook(new Thread(StandInServer::stop));
+        Thread.currentThread().join();
+    }
+}
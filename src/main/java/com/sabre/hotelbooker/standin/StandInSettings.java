@@ -0,0 +1,66 @@
+package com.sabre.hotelbooker.standin;
+
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+
+/**
+ * Knobs for the local HotelBooker stand-in, read from the env properties (or -D overrides):
+ * <ul>
+ *   <li>standInPort - listen port, must match HotelBookerURL</li>
+ *   <li>standInHotelCount / standInPageCount - search result size and how many pages it is split over</li>
+ *   <li>standInProvidersPerHotel / standInRatesPerProvider - shape of each hotel's rates</li>
+ *   <li>standInDelayMs - default response delay; standInDelayMs.&lt;endpoint&gt; overrides it per endpoint
+ *       (login, search, availability, rates, booking, static)</li>
+ * </ul>
+ */
+public class StandInSettings {
+
+    public static final String[] ENDPOINTS = {"login", "search", "availability", "rates", "booking", "static"};
+
+    public final int port;
+    public final int hotelCount;
+    public final int pageCount;
+    public final int providersPerHotel;
+    public final int ratesPerProvider;
+    private final int defaultDelayMs;
+
+    private StandInSettings() {
+        this.port = ConfigReader.getIntProperty("standInPort", 8089);
+        this.hotelCount = Math.max(0, ConfigReader.getIntProperty("standInHotelCount", 100));
+        this.pageCount = Math.max(1, ConfigReader.getIntProperty("standInPageCount", 5));
+        this.providersPerHotel = Math.max(1, Math.min(StandInCatalog.PROVIDERS.length, ConfigReader.getIntProperty("standInProvidersPerHotel", 2)));
+        this.ratesPerProvider = Math.max(1, ConfigReader.getIntProperty("standInRatesPerProvider", 3));
+        this.defaultDelayMs = Math.max(0, ConfigReader.getIntProperty("standInDelayMs", 0));
+    }
+
+    public static StandInSettings fromConfig() {
+        return new StandInSettings();
+    }
+
+    /**
+     * Hotels shown per results page
+     */
+    public int getPageSize() {
+        return Math.max(1, (hotelCount + pageCount - 1) / pageCount);
+    }
+
+    /**
+     * Pages actually needed for hotelCount (never more than standInPageCount)
+     */
+    public int getEffectivePageCount() {
+        return Math.max(1, (hotelCount + getPageSize() - 1) / getPageSize());
+    }
+
+    public int getDelayMs(String endpoint) {
+        return Math.max(0, ConfigReader.getIntProperty("standInDelayMs." + endpoint, defaultDelayMs));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder delays = new StringBuilder();
+        for (String endpoint : ENDPOINTS) {
+            delays.append(delays.length() > 0 ? ", " : "").append(endpoint).append('=').append(getDelayMs(endpoint));
+        }
+        return String.format("port=%d, hotels=%d over %d pages, providers/hotel=%d, rates/provider=%d, delays ms [%s]",
+            port, hotelCount, getEffectivePageCount(), providersPerHotel, ratesPerProvider, delays);
+    }
+}
@@ -200,7 +200,7 @@ public class DashboardPageObjects {
         String monthLabelSelector = ".datepicker-days .datepicker-switch";
         String nextMonthButtonSelector = ".datepicker-days th.next";
         
-        page.waitForSelector(monthLabelSelector);
+        waitUtility.waitForElementVisible(monthLabelSelector);
         
         // Navigate to target month/year
         while (true) {
@@ -212,7 +212,7 @@ public class DashboardPageObjects {
                 break;
             }
             page.click(nextMonthButtonSelector);
-            page.waitForTimeout(200);
+            waitUtility.waitForTextToChange(monthLabelSelector, monthYearText);
         }
         
         // Click the target day
@@ -1,13 +1,14 @@
 package com.sabre.hotelbooker.configreaderutils;
 
-import io.cucumber.plugin.EventListener;
+import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
 
 import java.util.concurrent.ConcurrentHashMap;
 import com.sabre.hotelbooker.loggerutils.LoggerUtil;
 
-public class ExtentStepLogger implements EventListener {
-    // Map to store the current step text for each thread
+public class ExtentStepLogger implements ConcurrentEventListener {
+    // Map to store the current step text for each thread.
+    // ConcurrentEventListener receives events on the thread running the step, so the thread id matches Hooks.afterStep in parallel runs
     public static final ConcurrentHashMap<Long, String> stepTextMap = new ConcurrentHashMap<>();
 
     @Override
@@ -2,12 +2,20 @@ package com.sabre.hotelbooker.configreaderutils;
 
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
 import com.microsoft.playwright.options.SelectOption;
 import com.microsoft.playwright.options.WaitForSelectorState;
 import com.sabre.hotelbooker.hotelbookerutility.ExplicitWaitUtility;
+import com.sabre.hotelbooker.hotelbookerutility.LocatorBatchReader;
+import com.sabre.hotelbooker.hotelbookerutility.PaginationHttpValidator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * HotelAvailabilityPageObjects - Complete Page Object for Hotel Availability/Search Results Page
@@ -23,6 +31,12 @@ public class HotelAvailabilityPageObjects {
     
     // Search Results Header
     private static final String SEARCH_RESULTS_HEADER = "h1:has-text('Dallas:')";
+    // jsoup selector / texts for pages fetched over HTTP (see PaginationHttpValidator)
+    private static final String RESULTS_PAGE_MARKER = "h1:contains(Dallas:)";
+    private static final List<String> ERROR_PAGE_MARKERS = Arrays.asList("Error", "404", "Not Found");
+    // Current page of the paging control: a span, or a bare number in the list between the links
+    private static final String RESULTS_CURRENT_PAGE =
+            "#ctl00_cphMainContent_pnlPageingControls span, #ctl00_cphMainContent_pnlPageingControls > div > div";
     private static final String HOTELS_FOUND_COUNT = "h1:has-text('properties found')";
     private static final String LOCATION_RESULTS = "text=Returned 100 hotels in Dallas - Location";
     
@@ -42,12 +56,14 @@ public class HotelAvailabilityPageObjects {
     private static final String PAGE_LINKS = "a[href*='page=']";
     private static final String PREVIOUS_LINK = "link:has-text('Previous')";
     private static final String NEXT_LINK = "link:has-text('Next')";
-    private static final String CURRENT_PAGE_INDICATOR = "span:not([href])"; // Current page is usually a span, not a link
+    private static final String CURRENT_PAGE_INDICATOR = "#ctl00_cphMainContent_pnlPageingControls span"; // Current page is usually a span, not a link
     
     // ============= HOTEL LIST ELEMENTS =============
     
     // Hotel Card Container
     private static final String HOTEL_CARD_CONTAINER = "div[class*='hotel']";
+    private static final String HOTEL_RESULTS_PANEL = "#ctl00_cphMainContent_pnlHotels";
+    private static final int RATES_LOADING_TIMEOUT = 10000;
     private static final String HOTEL_REPEATER = "#ctl00_cphMainContent_HotelRepeater";
     
     // Individual Hotel Elements (Dynamic - using indices)
@@ -192,14 +208,7 @@ public class HotelAvailabilityPageObjects {
      * Get available sort options
      */
     public List<String> getAvailableSortOptions() {
-        List<String> options = new ArrayList<>();
-        Locator sortDropdown = page.locator(SORT_DROPDOWN);
-        Locator optionElements = sortDropdown.locator("option");
-        
-        for (int i = 0; i < optionElements.count(); i++) {
-            options.add(optionElements.nth(i).textContent().trim());
-        }
-        return options;
+        return LocatorBatchReader.readTexts(page.locator(SORT_DROPDOWN).locator("option"));
     }
     
     /**
@@ -228,14 +237,13 @@ public class HotelAvailabilityPageObjects {
     }
     
     /**
-     * Get all available page numbers
+     * Get all available page numbers, including the current page, which has no link
      */
     public List<Integer> getAvailablePageNumbers() {
-        List<Integer> pageNumbers = new ArrayList<>();
-        Locator pageLinks = page.locator(PAGE_LINKS);
-        
-        for (int i = 0; i < pageLinks.count(); i++) {
-            String linkText = pageLinks.nth(i).textContent().trim();
+        Set<Integer> pageNumbers = new TreeSet<>();
+        List<String> texts = new ArrayList<>(LocatorBatchReader.readTexts(page.locator(PAGE_LINKS)));
+        texts.addAll(LocatorBatchReader.readTexts(page.locator(CURRENT_PAGE_INDICATOR)));
+        for (String linkText : texts) {
             try {
                 int pageNumber = Integer.parseInt(linkText);
                 pageNumbers.add(pageNumber);
@@ -243,7 +251,7 @@ public class HotelAvailabilityPageObjects {
                 // Skip non-numeric links
             }
         }
-        return pageNumbers;
+        return new ArrayList<>(pageNumbers);
     }
     
     /**
@@ -320,6 +328,9 @@ public class HotelAvailabilityPageObjects {
     
     /**
      * Comprehensive pagination validation - validates all pagination links and functionality
+     * Every link target is checked over HTTP in one concurrent pass (see PaginationHttpValidator);
+     * only one sample page is rendered in the browser.
+     *
      * @return ValidationResult object with detailed validation results
      */
     public PaginationValidationResult validatePaginationComprehensively() {
@@ -347,56 +358,85 @@ public class HotelAvailabilityPageObjects {
             int originalPage = getCurrentPageNumber();
             result.originalPage = originalPage;
             
-            // 4. Test each page link
+            // 4. Fetch every pagination target (page numbers, Previous/Next) concurrently over HTTP
+            PaginationHttpValidator validator = new PaginationHttpValidator(page);
+            List<PaginationHttpValidator.PageCheck> checks =
+                    validator.check(validator.collectTargets(PAGE_LINKS), RESULTS_PAGE_MARKER,
+                            RESULTS_CURRENT_PAGE, ERROR_PAGE_MARKERS);
+            Map<Integer, PaginationHttpValidator.PageCheck> pageChecks = new HashMap<>();
+            for (PaginationHttpValidator.PageCheck check : checks) {
+                if (!check.isOk()) {
+                    result.linkProblems.add(check.toString());
+                }
+                if (check.getTarget().getLabel().matches("\\d+")) {
+                    pageChecks.putIfAbsent(Integer.parseInt(check.getTarget().getLabel()), check);
+                }
+            }
+            
+            // 5. Page number links
             result.brokenLinks = new ArrayList<>();
             result.workingLinks = new ArrayList<>();
-            
             for (Integer pageNumber : availablePages) {
-                boolean linkWorks = validateSinglePageLink(pageNumber);
-                if (linkWorks) {
+                PaginationHttpValidator.PageCheck check = pageChecks.get(pageNumber);
+                // The current page has no link; it is the page being validated
+                if ((check == null && pageNumber == originalPage) || (check != null && check.isOk())) {
                     result.workingLinks.add(pageNumber);
                 } else {
                     result.brokenLinks.add(pageNumber);
                 }
             }
             
-            // 5. Test Previous/Next navigation
-            result.isPreviousLinkWorking = validatePreviousNextNavigation(true);
-            result.isNextLinkWorking = validatePreviousNextNavigation(false);
+            // 6. Previous/Next targets
+            result.isPreviousLinkWorking = validatePreviousNextTarget(checks, true, originalPage, availablePages);
+            result.isNextLinkWorking = validatePreviousNextTarget(checks, false, originalPage, availablePages);
             
-            // 6. Test boundary navigation (First/Last page)
-            result.isBoundaryNavigationWorking = validateBoundaryNavigation();
+            // 7. Boundary pages (First/Last) - the current page has no link of its own
+            int firstPage = availablePages.stream().min(Integer::compareTo).orElse(1);
+            int lastPage = availablePages.stream().max(Integer::compareTo).orElse(1);
+            result.isBoundaryNavigationWorking = (firstPage == originalPage || result.workingLinks.contains(firstPage))
+                    && (lastPage == originalPage || result.workingLinks.contains(lastPage));
             
-            // 7. Validate page sequence integrity
+            // 8. Validate page sequence integrity
             result.isPageSequenceValid = validatePageSequenceIntegrity(availablePages);
             
-            // 8. Test URL parameter consistency
-            result.isUrlParameterConsistent = validateUrlParameterConsistency();
+            // 9. URL parameter consistency - each numbered link targets its own page number and the
+            //    fetched page shows that number as the current page
+            result.isUrlParameterConsistent = pageChecks.entrySet().stream()
+                    .allMatch(entry -> entry.getValue().getTarget().getPageNumber() == entry.getKey()
+                            && entry.getValue().getCurrentPage() == entry.getKey());
             
-            // 9. Restore original page
-            clickPageNumber(originalPage);
+            // 10. Render one sample page in the browser, then restore the original page
+            int samplePage = result.workingLinks.stream().filter(pageNumber -> pageNumber != originalPage).findFirst().orElse(-1);
+            if (samplePage > 0 && !validateSinglePageLink(samplePage)) {
+                result.brokenLinks.add(samplePage);
+                result.workingLinks.remove(Integer.valueOf(samplePage));
+                result.linkProblems.add("Page " + samplePage + " did not render in the browser");
+            }
+            if (samplePage > 0) {
+                clickPageNumber(originalPage);
+            }
             
-            // 10. Calculate overall success
-            result.overallValidationPassed = result.brokenLinks.isEmpty() && 
-                                           result.isPreviousLinkWorking && 
-                                           result.isNextLinkWorking && 
-                                           result.isBoundaryNavigationWorking &&
-                                           result.isPageSequenceValid &&
-                                           result.isUrlParameterConsistent;
+            // 11. Calculate overall success
+            result.overallValidationPassed = result.brokenLinks.isEmpty() &&
+                    result.isPreviousLinkWorking &&
+                    result.isNextLinkWorking &&
+                    result.isBoundaryNavigationWorking &&
+                    result.isPageSequenceValid &&
+                    result.isUrlParameterConsistent;
             
-            // 11. Generate summary message
+            // 12. Generate summary message
             if (result.overallValidationPassed) {
                 result.validationMessage = String.format(
-                    "Pagination validation PASSED - %d pages tested, all links working correctly",
-                    result.totalPagesFound
+                        "Pagination validation PASSED - %d pages tested, all links working correctly",
+                        result.totalPagesFound
                 );
             } else {
                 result.validationMessage = String.format(
-                    "Pagination validation FAILED - %d broken links found out of %d total pages",
-                    result.brokenLinks.size(), result.totalPagesFound
+                        "Pagination validation FAILED - %d broken links found out of %d total pages",
+                        result.brokenLinks.size(), result.totalPagesFound
                 );
             }
-            
+        
         } catch (Exception e) {
             result.validationMessage = "Pagination validation failed with exception: " + e.getMessage();
             result.overallValidationPassed = false;
@@ -428,82 +468,34 @@ public class HotelAvailabilityPageObjects {
             boolean pageNumberMatches = newUrl.contains("page=" + pageNumber);
             
             return urlChanged && contentLoaded && pageNumberMatches;
-            
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
-    /**
-     * Validate Previous/Next navigation buttons
-     */
-    private boolean validatePreviousNextNavigation(boolean testPrevious) {
-        try {
-            String linkSelector = testPrevious ? PREVIOUS_LINK : NEXT_LINK;
-            
-            // Check if button is available when it should be
-            boolean buttonVisible = page.isVisible(linkSelector);
-            
-            if (!buttonVisible) {
-                // Button not visible - check if this is expected
-                int currentPage = getCurrentPageNumber();
-                List<Integer> availablePages = getAvailablePageNumbers();
-                
-                if (testPrevious) {
-                    // Previous should not be visible on first page
-                    return currentPage == 1 || currentPage == availablePages.stream().min(Integer::compareTo).orElse(1);
-                } else {
-                    // Next should not be visible on last page
-                    return currentPage == availablePages.stream().max(Integer::compareTo).orElse(1);
-                }
-            }
-            
-            // Button is visible, test if it works
-            String currentUrl = page.url();
-            page.click(linkSelector);
-            waitUtility.waitForPageLoad();
-            
-            String newUrl = page.url();
-            boolean urlChanged = !currentUrl.equals(newUrl);
-            
-            // Verify content loaded
-            boolean contentLoaded = page.isVisible(SEARCH_RESULTS_HEADER);
-            
-            return urlChanged && contentLoaded;
-            
+        
         } catch (Exception e) {
             return false;
         }
     }
     
     /**
-     * Validate boundary navigation (first/last page)
+     * Validate the Previous/Next target from the HTTP checks
      */
-    private boolean validateBoundaryNavigation() {
-        try {
-            List<Integer> availablePages = getAvailablePageNumbers();
-            if (availablePages.size() < 2) {
-                return true; // Single page, boundary navigation not applicable
+    private boolean validatePreviousNextTarget(List<PaginationHttpValidator.PageCheck> checks, boolean testPrevious,
+                                               int currentPage, List<Integer> availablePages) {
+        String label = testPrevious ? "Previous" : "Next";
+        PaginationHttpValidator.PageCheck check = checks.stream()
+                .filter(candidate -> candidate.getTarget().getLabel().contains(label))
+                .findFirst()
+                .orElse(null);
+        
+        if (check == null) {
+            // No link - only expected on the first page (Previous) or the last page (Next)
+            if (testPrevious) {
+                return currentPage == 1 || currentPage == availablePages.stream().min(Integer::compareTo).orElse(1);
             }
-            
-            int firstPage = availablePages.stream().min(Integer::compareTo).orElse(1);
-            int lastPage = availablePages.stream().max(Integer::compareTo).orElse(1);
-            
-            // Test navigation to first page
-            goToFirstPage();
-            waitUtility.waitForPageLoad();
-            boolean reachedFirst = getCurrentPageNumber() == firstPage;
-            
-            // Test navigation to last page
-            goToLastPage();
-            waitUtility.waitForPageLoad();
-            boolean reachedLast = getCurrentPageNumber() == lastPage;
-            
-            return reachedFirst && reachedLast;
-            
-        } catch (Exception e) {
-            return false;
+            return currentPage == availablePages.stream().max(Integer::compareTo).orElse(1);
         }
+        
+        int targetPage = check.getTarget().getPageNumber();
+        boolean rightDirection = testPrevious ? targetPage < currentPage : targetPage > currentPage;
+        return check.isOk() && rightDirection;
     }
     
     /**
@@ -533,76 +525,29 @@ public class HotelAvailabilityPageObjects {
         return sortedPages.get(0) == 1;
     }
     
-    /**
-     * Validate URL parameter consistency
-     */
-    private boolean validateUrlParameterConsistency() {
-        try {
-            List<Integer> availablePages = getAvailablePageNumbers();
-            
-            for (Integer pageNumber : availablePages) {
-                clickPageNumber(pageNumber);
-                waitUtility.waitForPageLoad();
-                
-                String currentUrl = page.url();
-                
-                // Check if URL contains correct page parameter
-                if (!currentUrl.contains("page=" + pageNumber)) {
-                    return false;
-                }
-                
-                // Check if displayed page matches URL parameter
-                int displayedPage = getCurrentPageNumber();
-                if (displayedPage != pageNumber) {
-                    return false;
-                }
-            }
-            
-            return true;
-            
-        } catch (Exception e) {
-            return false;
-        }
-    }
-    
     /**
      * Check for broken pagination links (returns 404 or other errors)
+     * The links are fetched over HTTP in one concurrent pass; the page under test does not navigate
      */
     public List<String> checkForBrokenPaginationLinks() {
         List<String> brokenLinks = new ArrayList<>();
         
         try {
-            Locator pageLinks = page.locator(PAGE_LINKS);
-            
-            for (int i = 0; i < pageLinks.count(); i++) {
-                String href = pageLinks.nth(i).getAttribute("href");
-                if (href != null && !href.isEmpty()) {
-                    // Check if link is accessible
-                    try {
-                        pageLinks.nth(i).click();
-                        waitUtility.waitForPageLoad();
-                        
-                        // Check for error indicators
-                        if (page.isVisible("text=404") || 
-                            page.isVisible("text=Not Found") || 
-                            page.isVisible("text=Error") ||
-                            page.title().toLowerCase().contains("error")) {
-                            brokenLinks.add(href);
-                        }
-                        
-                    } catch (Exception e) {
-                        brokenLinks.add(href + " - Exception: " + e.getMessage());
-                    }
+            PaginationHttpValidator validator = new PaginationHttpValidator(page);
+            for (PaginationHttpValidator.PageCheck check :
+                    validator.check(validator.collectTargets(PAGE_LINKS), RESULTS_PAGE_MARKER, ERROR_PAGE_MARKERS)) {
+                if (!check.isOk()) {
+                    brokenLinks.add(check.getTarget().getUrl() + " - " + check.getProblem());
                 }
             }
-            
+        
         } catch (Exception e) {
             brokenLinks.add("Error checking pagination links: " + e.getMessage());
         }
         
         return brokenLinks;
     }
-    
+
     /**
      * Data class for pagination validation results
      */
@@ -620,6 +565,7 @@ public class HotelAvailabilityPageObjects {
         public boolean overallValidationPassed = false;
         public String validationMessage = "";
         public int originalPage = 1;
+        public List<String> linkProblems = new ArrayList<>();
         
         /**
          * Check if overall validation was successful
@@ -674,6 +620,7 @@ public class HotelAvailabilityPageObjects {
             sb.append("- Page Sequence Valid: ").append(isPageSequenceValid).append("\n");
             sb.append("- URL Parameter Consistent: ").append(isUrlParameterConsistent).append("\n");
             sb.append("- Overall Validation: ").append(overallValidationPassed ? "PASSED" : "FAILED").append("\n");
+            sb.append("- Link Problems: ").append(linkProblems).append("\n");
             sb.append("- Message: ").append(validationMessage);
             return sb.toString();
         }
@@ -775,13 +722,7 @@ public class HotelAvailabilityPageObjects {
      * Get all hotel names from the current page
      */
     public List<String> getAllHotelNames() {
-        List<String> hotelNames = new ArrayList<>();
-        Locator hotelLinks = page.locator(HOTEL_NAME_LINK);
-        
-        for (int i = 0; i < hotelLinks.count(); i++) {
-            hotelNames.add(hotelLinks.nth(i).textContent().trim());
-        }
-        return hotelNames;
+        return LocatorBatchReader.readTexts(page.locator(HOTEL_NAME_LINK));
     }
     
     /**
@@ -866,12 +807,10 @@ public class HotelAvailabilityPageObjects {
     public void waitForRatesToLoad() {
         // Wait for loading indicator to disappear
         if (page.isVisible(CHECKING_AVAILABILITY_TEXT)) {
-            page.waitForSelector(CHECKING_AVAILABILITY_TEXT, new Page.WaitForSelectorOptions()
-                .setState(WaitForSelectorState.HIDDEN).setTimeout(30000));
+            waitUtility.waitForElementToDisappear(CHECKING_AVAILABILITY_TEXT, 30000);
         }
         if (page.isVisible(RATES_LOADING_IMAGE)) {
-            page.waitForSelector(RATES_LOADING_IMAGE, new Page.WaitForSelectorOptions()
-                .setState(WaitForSelectorState.HIDDEN).setTimeout(30000));
+            waitUtility.waitForElementToDisappear(RATES_LOADING_IMAGE, 30000);
         }
         // Wait for rates container to be visible
         waitUtility.waitForElementVisible(HOTEL_RATES_CONTAINER);
@@ -928,13 +867,7 @@ public class HotelAvailabilityPageObjects {
      * Get all rate prices in USD
      */
     public List<String> getAllRatePricesUSD() {
-        List<String> prices = new ArrayList<>();
-        Locator priceElements = page.locator(RATE_PRICE_USD);
-        
-        for (int i = 0; i < priceElements.count(); i++) {
-            prices.add(priceElements.nth(i).textContent().trim());
-        }
-        return prices;
+        return LocatorBatchReader.readTexts(page.locator(RATE_PRICE_USD));
     }
     
     /**
@@ -1099,8 +1032,8 @@ public class HotelAvailabilityPageObjects {
      */
     public void validateRateInformationDisplayed() {
         try {
-            // Wait for rates to load (checking availability may take time)
-            page.waitForTimeout(5000);
+            // Wait for the rates request to finish and the results to stop changing
+            waitUtility.waitForQuiet(HOTEL_RESULTS_PANEL);
             
             // Check for rate container or rate information
             boolean ratesDisplayed = page.isVisible(HOTEL_RATES_CONTAINER) ||
@@ -1117,8 +1050,13 @@ public class HotelAvailabilityPageObjects {
                                      page.isVisible("text=Checking Availability");
                 
                 if (stillLoading) {
-                    // Wait additional time for rates to load
-                    page.waitForTimeout(10000);
+                    // Wait for the loading indicator to clear, then for the rates to settle
+                    try {
+                        waitUtility.waitForElementToDisappear(CHECKING_AVAILABILITY_TEXT, RATES_LOADING_TIMEOUT);
+                        waitUtility.waitForQuiet(HOTEL_RESULTS_PANEL);
+                    } catch (TimeoutError e) {
+                        // Still loading - the re-check below reports the missing rates
+                    }
                     
                     // Re-check for rates
                     ratesDisplayed = page.isVisible(HOTEL_RATES_CONTAINER) ||
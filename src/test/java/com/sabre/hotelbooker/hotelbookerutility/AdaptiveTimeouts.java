@@ -0,0 +1,166 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * AdaptiveTimeouts - Per wait-site timeouts derived from how long each site took in earlier runs
+ * A wait site is the ExplicitWaitUtility method plus its selector. Successful wait durations are kept
+ * (last waitHistorySize per site) in a small properties file per environment, and the timeout for a site is
+ * the waitTimeoutPercentile of its history times waitTimeoutFactor, clamped to waitTimeoutFloorMs /
+ * waitTimeoutCeilingMs. Sites with fewer than waitHistoryMinSamples samples keep their hardcoded timeout.
+ *
+ * Enabled with adaptiveTimeouts=true; history is still recorded when disabled so it is ready when switched on.
+ */
+public class AdaptiveTimeouts {
+
+    private static final Map<String, Deque<Long>> history = new HashMap<>();
+    // Samples recorded in this run, merged into the file on save
+    private static final Map<String, List<Long>> recorded = new HashMap<>();
+    private static boolean loaded;
+
+    private AdaptiveTimeouts() {
+    }
+
+    /**
+     * Timeout for a wait site: adaptive when enabled and the site has enough history, else defaultTimeout
+     */
+    public static synchronized int timeoutFor(String site, int defaultTimeout) {
+        if (!ConfigReader.getBooleanProperty("adaptiveTimeouts", false)) {
+            return defaultTimeout;
+        }
+        load();
+        Deque<Long> samples = history.get(site);
+        if (samples == null || samples.size() < ConfigReader.getIntProperty("waitHistoryMinSamples", 5)) {
+            return defaultTimeout;
+        }
+        double factor = Double.parseDouble(ConfigReader.getProperty("waitTimeoutFactor", "2.0"));
+        long derived = (long) (percentile(samples, ConfigReader.getIntProperty("waitTimeoutPercentile", 95)) * factor);
+        long floor = ConfigReader.getIntProperty("waitTimeoutFloorMs", 2000);
+        long ceiling = ConfigReader.getIntProperty("waitTimeoutCeilingMs", 120000);
+        return (int) Math.max(floor, Math.min(ceiling, derived));
+    }
+
+    /**
+     * Record how long a successful wait at a site took
+     */
+    public static synchronized void record(String site, long durationMs) {
+        load();
+        append(history, site, durationMs);
+        recorded.computeIfAbsent(site, key -> new ArrayList<>()).add(durationMs);
+    }
+
+    /**
+     * Description of the history behind a site's timeout, for timeout error messages
+     */
+    public static synchronized String describe(String site) {
+        load();
+        Deque<Long> samples = history.get(site);
+        if (samples == null || samples.isEmpty()) {
+            return "no history";
+        }
+        return String.format("p%d %d ms over %d samples", ConfigReader.getIntProperty("waitTimeoutPercentile", 95),
+            percentile(samples, ConfigReader.getIntProperty("waitTimeoutPercentile", 95)), samples.size());
+    }
+
+    /**
+     * Merge this run's samples into the history file. Called once after all scenarios.
+     */
+    public static synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Path file = getHistoryFile();
+        // Re-read so samples written since this run loaded the file are kept
+        Map<String, Deque<Long>> merged = read(file);
+        recorded.forEach((site, samples) -> samples.forEach(sample -> append(merged, site, sample)));
+        Properties properties = new Properties();
+        merged.forEach((site, samples) -> properties.setProperty(site,
+            samples.stream().map(String::valueOf).collect(Collectors.joining(","))));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, "Wait durations (ms) per wait site, newest last");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            recorded.clear();
+            LoggerUtil.logInfo("Saved wait history for {} sites to {}", merged.size(), file);
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not save wait history to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void load() {
+        if (!loaded) {
+            history.putAll(read(getHistoryFile()));
+            loaded = true;
+        }
+    }
+
+    private static Map<String, Deque<Long>> read(Path file) {
+        Map<String, Deque<Long>> samples = new HashMap<>();
+        if (!Files.exists(file)) {
+            return samples;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not read wait history {}: {}", file, e.getMessage());
+            return samples;
+        }
+        for (String site : properties.stringPropertyNames()) {
+            try {
+                Arrays.stream(properties.getProperty(site).split(","))
+                    .filter(value -> !value.trim().isEmpty())
+                    .forEach(value -> append(samples, site, Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                LoggerUtil.logWarn("Ignoring malformed wait history for {}", site);
+                samples.remove(site);
+            }
+        }
+        return samples;
+    }
+
+    private static void append(Map<String, Deque<Long>> samples, String site, long durationMs) {
+        Deque<Long> siteSamples = samples.computeIfAbsent(site, key -> new ArrayDeque<>());
+        siteSamples.addLast(durationMs);
+        int limit = ConfigReader.getIntProperty("waitHistorySize", 50);
+        while (siteSamples.size() > limit) {
+            siteSamples.removeFirst();
+        }
+    }
+
+    private static long percentile(Deque<Long> samples, int percentile) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    private static Path getHistoryFile() {
+        String env = System.getProperty("env", "DEV").toUpperCase();
+        return Paths.get(ConfigReader.getProperty("waitHistoryDir", "wait-history"), env + ".properties");
+    }
+}
@@ -1,29 +1,44 @@
 package com.sabre.hotelbooker.hotelbookerutility;
 
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
 import com.microsoft.playwright.options.LoadState;
 import com.microsoft.playwright.options.WaitForSelectorState;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.playwrightbase.NetworkActivityTracker;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 
 /**
  * ExplicitWaitUtility - Comprehensive wait strategies for stable automation
  * Handles page loading, JavaScript execution, and backend API calls
+ * Each wait runs with the adaptive timeout of its site (method + selector), see AdaptiveTimeouts,
+ * and its duration is added to the run's WaitStatistics
  */
 public class ExplicitWaitUtility {
     
     private final Page page;
+    private final QuiescenceDetector quiescence;
+    private final PageStabilityWait stabilityWait;
     private static final int DEFAULT_TIMEOUT = 30000; // 30 seconds
     private static final int LONG_TIMEOUT = 60000; // 60 seconds
     private static final int SHORT_TIMEOUT = 10000; // 10 seconds
+    private static final int DEFAULT_NETWORK_IDLE = 500; // same quiet period as Playwright's NETWORKIDLE
     
     public ExplicitWaitUtility(Page page) {
         this.page = page;
+        this.quiescence = new QuiescenceDetector(page);
+        this.stabilityWait = new PageStabilityWait(page);
     }
     
     /**
      * Wait for complete page load including all resources
      */
     public void waitForPageLoad() {
-        page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForPageLoad", "networkidle", DEFAULT_TIMEOUT, timeout ->
+            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(timeout)));
         waitForJavaScriptToComplete();
     }
     
@@ -31,21 +46,31 @@ public class ExplicitWaitUtility {
      * Wait for JavaScript execution to complete
      */
     public void waitForJavaScriptToComplete() {
-        page.waitForFunction("() => document.readyState === 'complete'", null, 
-            new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForJavaScriptToComplete", "readyState", DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction("() => document.readyState === 'complete'", null,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)));
         
         // Wait for jQuery if present
-        page.waitForFunction("() => typeof jQuery === 'undefined' || jQuery.active === 0", null,
-            new Page.WaitForFunctionOptions().setTimeout(SHORT_TIMEOUT));
+        timed("waitForJavaScriptToComplete", "jQuery", SHORT_TIMEOUT, timeout ->
+            page.waitForFunction("() => typeof jQuery === 'undefined' || jQuery.active === 0", null,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)));
     }
     
     /**
      * Wait for all AJAX/API calls to complete
+     * Uses the context's network tracker when there is one - it counts XHR and fetch from before this call
+     * and across navigations - otherwise falls back to jQuery.active and an in-page fetch patch
      */
     public void waitForAjaxCallsToComplete() {
+        NetworkActivityTracker tracker = NetworkActivityTracker.of(page.context());
+        if (tracker != null) {
+            timed("waitForAjaxCallsToComplete", "tracker", DEFAULT_TIMEOUT, timeout -> tracker.waitForIdle(0, timeout));
+            return;
+        }
         // Wait for jQuery AJAX calls
-        page.waitForFunction("() => typeof jQuery === 'undefined' || jQuery.active === 0", null,
-            new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForAjaxCallsToComplete", "jQuery", DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction("() => typeof jQuery === 'undefined' || jQuery.active === 0", null,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)));
         
         // Wait for fetch API calls
         String fetchWaitScript = "() => {" +
@@ -70,16 +95,25 @@ public class ExplicitWaitUtility {
                 "checkActive();" +
             "});" +
         "}";
-        page.waitForFunction(fetchWaitScript, null, new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForAjaxCallsToComplete", "fetch", DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(fetchWaitScript, null, new Page.WaitForFunctionOptions().setTimeout(timeout)));
     }
     
     /**
      * Wait for element to be visible and stable
      */
     public void waitForElementVisible(String selector) {
-        page.waitForSelector(selector, new Page.WaitForSelectorOptions()
-            .setState(WaitForSelectorState.VISIBLE)
-            .setTimeout(DEFAULT_TIMEOUT));
+        waitForElementVisible(selector, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for element to be visible, with a site-specific default timeout
+     */
+    public void waitForElementVisible(String selector, int timeoutMs) {
+        timed("waitForElementVisible", selector, timeoutMs, timeout ->
+            page.waitForSelector(selector, new Page.WaitForSelectorOptions()
+                .setState(WaitForSelectorState.VISIBLE)
+                .setTimeout(timeout)));
     }
     
     /**
@@ -87,11 +121,12 @@ public class ExplicitWaitUtility {
      */
     public void waitForElementClickable(String selector) {
         waitForElementVisible(selector);
-        page.waitForFunction(
-            "selector => document.querySelector(selector) && !document.querySelector(selector).disabled",
-            selector,
-            new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT)
-        );
+        timed("waitForElementClickable", selector, DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(
+                "selector => document.querySelector(selector) && !document.querySelector(selector).disabled",
+                selector,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)
+            ));
     }
     
     /**
@@ -103,16 +138,25 @@ public class ExplicitWaitUtility {
         args.put("selector", selector);
         args.put("text", expectedText);
         
-        page.waitForFunction(script, args, new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForTextInElement", selector, DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(script, args, new Page.WaitForFunctionOptions().setTimeout(timeout)));
     }
     
     /**
      * Wait for element to disappear
      */
     public void waitForElementToDisappear(String selector) {
-        page.waitForSelector(selector, new Page.WaitForSelectorOptions()
-            .setState(WaitForSelectorState.HIDDEN)
-            .setTimeout(DEFAULT_TIMEOUT));
+        waitForElementToDisappear(selector, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait for element to disappear, with a site-specific default timeout
+     */
+    public void waitForElementToDisappear(String selector, int timeoutMs) {
+        timed("waitForElementToDisappear", selector, timeoutMs, timeout ->
+            page.waitForSelector(selector, new Page.WaitForSelectorOptions()
+                .setState(WaitForSelectorState.HIDDEN)
+                .setTimeout(timeout)));
     }
     
     /**
@@ -120,11 +164,12 @@ public class ExplicitWaitUtility {
      */
     public void waitForDropdownOptionsToLoad(String dropdownSelector) {
         waitForElementVisible(dropdownSelector);
-        page.waitForFunction(
-            "selector => { const dropdown = document.querySelector(selector); return dropdown && dropdown.options && dropdown.options.length > 1; }",
-            dropdownSelector,
-            new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT)
-        );
+        timed("waitForDropdownOptionsToLoad", dropdownSelector, DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(
+                "selector => { const dropdown = document.querySelector(selector); return dropdown && dropdown.options && dropdown.options.length > 1; }",
+                dropdownSelector,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)
+            ));
     }
     
     /**
@@ -132,14 +177,15 @@ public class ExplicitWaitUtility {
      */
     public void waitForModalToLoad(String modalSelector) {
         waitForElementVisible(modalSelector);
-        // Wait for modal animation to complete
-        page.waitForTimeout(500);
+        // Wait for modal animation and content to settle
+        quiescence.waitForQuiet(modalSelector);
         // Ensure modal content is loaded
-        page.waitForFunction(
-            "selector => { const modal = document.querySelector(selector); return modal && modal.style.display !== 'none'; }",
-            modalSelector,
-            new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT)
-        );
+        timed("waitForModalToLoad", modalSelector, DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(
+                "selector => { const modal = document.querySelector(selector); return modal && modal.style.display !== 'none'; }",
+                modalSelector,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)
+            ));
     }
     
     /**
@@ -149,11 +195,12 @@ public class ExplicitWaitUtility {
         waitForElementVisible(resultsContainerSelector);
         waitForAjaxCallsToComplete();
         // Additional wait for content to populate
-        page.waitForFunction(
-            "selector => { const container = document.querySelector(selector); return container && container.children.length > 0; }",
-            resultsContainerSelector,
-            new Page.WaitForFunctionOptions().setTimeout(LONG_TIMEOUT)
-        );
+        timed("waitForSearchResultsToLoad", resultsContainerSelector, LONG_TIMEOUT, timeout ->
+            page.waitForFunction(
+                "selector => { const container = document.querySelector(selector); return container && container.children.length > 0; }",
+                resultsContainerSelector,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)
+            ));
     }
     
     /**
@@ -162,8 +209,8 @@ public class ExplicitWaitUtility {
     public void waitForFormSubmission() {
         waitForAjaxCallsToComplete();
         waitForJavaScriptToComplete();
-        // Additional wait for any redirect or page change
-        page.waitForTimeout(1000);
+        // Wait for any redirect or page change to settle
+        quiescence.waitForQuiet();
     }
     
     /**
@@ -171,26 +218,65 @@ public class ExplicitWaitUtility {
      */
     public void waitForDatepickerToLoad() {
         waitForElementVisible(".datepicker");
-        page.waitForFunction(
-            "() => { const datepicker = document.querySelector('.datepicker'); return datepicker && datepicker.style.display !== 'none'; }",
-            null,
-            new Page.WaitForFunctionOptions().setTimeout(SHORT_TIMEOUT)
-        );
+        timed("waitForDatepickerToLoad", ".datepicker", SHORT_TIMEOUT, timeout ->
+            page.waitForFunction(
+                "() => { const datepicker = document.querySelector('.datepicker'); return datepicker && datepicker.style.display !== 'none'; }",
+                null,
+                new Page.WaitForFunctionOptions().setTimeout(timeout)
+            ));
     }
     
     /**
      * Wait for network activity to settle
+     * With the context's network tracker this waits for networkIdleMs without any request in flight,
+     * after navigations as well as after in-page post-backs
      */
     public void waitForNetworkIdle() {
-        page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(LONG_TIMEOUT));
+        NetworkActivityTracker tracker = NetworkActivityTracker.of(page.context());
+        if (tracker != null) {
+            int idleMs = ConfigReader.getIntProperty("networkIdleMs", DEFAULT_NETWORK_IDLE);
+            timed("waitForNetworkIdle", "tracker", LONG_TIMEOUT, timeout -> tracker.waitForIdle(idleMs, timeout));
+            return;
+        }
+        timed("waitForNetworkIdle", "networkidle", LONG_TIMEOUT, timeout ->
+            page.waitForLoadState(LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(timeout)));
     }
     
     /**
      * Custom wait with condition check
      */
     public void waitForCondition(String jsCondition, int timeoutMs) {
-        page.waitForFunction(jsCondition, null, 
-            new Page.WaitForFunctionOptions().setTimeout(timeoutMs));
+        timed("waitForCondition", jsCondition, timeoutMs, timeout ->
+            page.waitForFunction(jsCondition, null, new Page.WaitForFunctionOptions().setTimeout(timeout)));
+    }
+    
+    /**
+     * Wait for a located element to be visible; name identifies the wait site
+     */
+    public void waitForLocator(Locator locator, String name) {
+        timed("waitForLocator", name, DEFAULT_TIMEOUT, timeout ->
+            locator.waitFor(new Locator.WaitForOptions().setTimeout(timeout)));
+    }
+
+    /**
+     * Wait for an element's text to change from previousText
+     */
+    public void waitForTextToChange(String selector, String previousText) {
+        String script = "(args) => { const el = document.querySelector(args.selector); return el && el.textContent.trim() !== args.text; }";
+        java.util.Map<String, Object> args = new java.util.HashMap<>();
+        args.put("selector", selector);
+        args.put("text", previousText.trim());
+
+        timed("waitForTextToChange", selector, SHORT_TIMEOUT, timeout ->
+            page.waitForFunction(script, args, new Page.WaitForFunctionOptions().setTimeout(timeout)));
+    }
+    
+    /**
+     * Wait for a page-specific predicate; site names the wait for timeouts and statistics
+     */
+    public void waitForFunction(String site, String script, Object arg, int timeoutMs) {
+        timed("waitForFunction", site, timeoutMs, timeout ->
+            page.waitForFunction(script, arg, new Page.WaitForFunctionOptions().setTimeout(timeout)));
     }
     
     /**
@@ -202,7 +288,8 @@ public class ExplicitWaitUtility {
         args.put("selector", selector);
         args.put("count", expectedCount);
         
-        page.waitForFunction(script, args, new Page.WaitForFunctionOptions().setTimeout(DEFAULT_TIMEOUT));
+        timed("waitForElementCount", selector, DEFAULT_TIMEOUT, timeout ->
+            page.waitForFunction(script, args, new Page.WaitForFunctionOptions().setTimeout(timeout)));
     }
     
     /**
@@ -226,13 +313,45 @@ public class ExplicitWaitUtility {
     
     /**
      * Comprehensive wait for page stability
+     * readyState, jQuery, pending XHR/fetch, spinners and DOM quiet are checked together in one in-page predicate
      */
-    public void waitForPageStability() {
-        waitForPageLoad();
-        waitForAjaxCallsToComplete();
-        waitForSpinnerToDisappear();
-        waitForNetworkIdle();
-        // Final stability check
-        page.waitForTimeout(500);
+    public PageStabilityWait.Result waitForPageStability() {
+        return timedResult("waitForPageStability", "page", LONG_TIMEOUT, stabilityWait::waitForStability);
+    }
+
+    /**
+     * Wait until the subtree under rootSelector has stopped changing and no requests are in flight
+     * @return milliseconds actually waited
+     */
+    public long waitForQuiet(String rootSelector) {
+        return quiescence.waitForQuiet(rootSelector);
+    }
+
+    /**
+     * Run a wait with the adaptive timeout of its site and record how long it took
+     */
+    private void timed(String method, String selector, int defaultTimeout, IntConsumer wait) {
+        timedResult(method, selector, defaultTimeout, timeout -> {
+            wait.accept(timeout);
+            return null;
+        });
+    }
+
+    private <T> T timedResult(String method, String selector, int defaultTimeout, IntFunction<T> wait) {
+        String site = method + " " + selector;
+        int timeout = AdaptiveTimeouts.timeoutFor(site, defaultTimeout);
+        long start = System.currentTimeMillis();
+        try {
+            T result = wait.apply(timeout);
+            long waited = System.currentTimeMillis() - start;
+            AdaptiveTimeouts.record(site, waited);
+            WaitStatistics.record(method, selector, waited, false);
+            return result;
+        } catch (TimeoutError e) {
+            WaitStatistics.record(method, selector, System.currentTimeMillis() - start, true);
+            if (timeout == defaultTimeout) throw e;
+            throw new TimeoutError(String.format("%s: adaptive timeout of %d ms exceeded (%s) - %s",
+                site, timeout, AdaptiveTimeouts.describe(site), e.getMessage()));
+        }
     }
-}
\ No newline at end of file
+}
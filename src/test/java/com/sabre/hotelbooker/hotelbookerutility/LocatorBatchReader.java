@@ -0,0 +1,114 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.microsoft.playwright.Locator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * LocatorBatchReader - Reads every element matched by a locator in one round trip
+ * Replaces the loop "for (i < locator.count()) locator.nth(i).textContent()", which costs a count() per
+ * iteration plus a read per element (2N+1 round trips), with a single evaluateAll that returns the text,
+ * visibility and requested attributes of all matches. Like count(), it does not wait for elements to appear.
+ */
+public class LocatorBatchReader {
+
+    // Text, visibility (same rule as Playwright: non-empty box and not visibility:hidden) and attributes of each match
+    private static final String READ_SCRIPT =
+        "(elements, attributes) => elements.map(el => {" +
+            "const rect = el.getBoundingClientRect();" +
+            "const values = {};" +
+            "attributes.forEach(name => { values[name] = el.getAttribute(name); });" +
+            "return {" +
+                "text: el.textContent || ''," +
+                "visible: rect.width > 0 && rect.height > 0 && getComputedStyle(el).visibility !== 'hidden'," +
+                "attributes: values" +
+            "};" +
+        "})";
+
+    private LocatorBatchReader() {
+    }
+
+    /**
+     * Snapshot of one matched element
+     */
+    public static class ElementSnapshot {
+        private final int index;
+        private final String text;
+        private final boolean visible;
+        private final Map<String, String> attributes;
+
+        private ElementSnapshot(int index, String text, boolean visible, Map<String, String> attributes) {
+            this.index = index;
+            this.text = text;
+            this.visible = visible;
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        /**
+         * Position among the matches, usable with locator.nth(index)
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * textContent, trimmed
+         */
+        public String getText() {
+            return text;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        /**
+         * Attribute value, or null when the element does not have it (or it was not requested)
+         */
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " '" + text + "'" + (visible ? "" : " (hidden)") + (attributes.isEmpty() ? "" : " " + attributes);
+        }
+    }
+
+    /**
+     * Text, visibility and the given attributes of every element matched by the locator
+     */
+    public static List<ElementSnapshot> read(Locator locator, String... attributeNames) {
+        List<String> names = new ArrayList<>();
+        Collections.addAll(names, attributeNames);
+        Object result = locator.evaluateAll(READ_SCRIPT, names);
+
+        List<ElementSnapshot> snapshots = new ArrayList<>();
+        if (result instanceof List) {
+            for (Object item : (List<?>) result) {
+                Map<?, ?> element = (Map<?, ?>) item;
+                Map<String, String> attributes = new HashMap<>();
+                Object values = element.get("attributes");
+                if (values instanceof Map) {
+                    ((Map<?, ?>) values).forEach((name, value) ->
+                        attributes.put(String.valueOf(name), value == null ? null : value.toString()));
+                }
+                snapshots.add(new ElementSnapshot(snapshots.size(), String.valueOf(element.get("text")).trim(),
+                    Boolean.TRUE.equals(element.get("visible")), attributes));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Trimmed textContent of every element matched by the locator
+     */
+    public static List<String> readTexts(Locator locator) {
+        return read(locator).stream().map(ElementSnapshot::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,166 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.LoadState;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PageStabilityWait - Composite page-stability condition checked in a single in-page predicate
+ * readyState, jQuery.active, pending XHR / fetch, visible spinners and a DOM quiet window are polled
+ * together inside one page.evaluate call under one overall timeout, instead of one protocol round trip
+ * (and one timeout) per condition. The result records when each phase was first satisfied
+ *
+ * Spinners and the quiet window are best effort: if only they are unsettled at the timeout the wait
+ * logs a warning and returns, as the per-spinner waits it replaces did
+ */
+public class PageStabilityWait {
+
+    public static final String SPINNER_SELECTOR = String.join(", ",
+        ".spinner", ".loading", ".loader",
+        "[class*='spin']", "[class*='load']",
+        ".fa-spinner", ".fa-circle-o-notch");
+
+    private static final String[] REQUIRED_PHASES = {"readyState", "jQuery", "requests"};
+    private static final int DEFAULT_QUIET_WINDOW = 300;
+    private static final int POLL_INTERVAL = 50;
+
+    // Each phase keeps the time (ms from start) it was last seen turning true; -1 while it is false
+    private static final String STABILITY_SCRIPT =
+        "(args) => {" +
+            "(" + QuiescenceDetector.TRACKER_SCRIPT + ")();" +
+            "return new Promise(resolve => {" +
+                "const start = performance.now();" +
+                "let lastMutation = start;" +
+                "const observer = new MutationObserver(() => { lastMutation = performance.now(); });" +
+                "observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });" +
+                "const visible = el => el.getClientRects().length > 0 && getComputedStyle(el).visibility !== 'hidden';" +
+                "const conditions = {" +
+                    "readyState: () => document.readyState === 'complete'," +
+                    "jQuery: () => typeof jQuery === 'undefined' || jQuery.active === 0," +
+                    "requests: () => (window.__hbInFlight || 0) === 0," +
+                    "spinners: () => !Array.from(document.querySelectorAll(args.spinners)).some(visible)," +
+                    "quiet: () => performance.now() - lastMutation >= args.quietMs" +
+                "};" +
+                "const phases = {};" +
+                "Object.keys(conditions).forEach(name => phases[name] = -1);" +
+                "const check = () => {" +
+                    "const elapsed = Math.round(performance.now() - start);" +
+                    "let stable = true;" +
+                    "for (const name of Object.keys(conditions)) {" +
+                        "if (conditions[name]()) {" +
+                            "if (phases[name] < 0) phases[name] = elapsed;" +
+                        "} else {" +
+                            "phases[name] = -1;" +
+                            "stable = false;" +
+                        "}" +
+                    "}" +
+                    "if (stable || elapsed >= args.timeoutMs) {" +
+                        "observer.disconnect();" +
+                        "resolve({ stable: stable, phases: phases });" +
+                    "} else {" +
+                        "setTimeout(check, args.pollMs);" +
+                    "}" +
+                "};" +
+                "check();" +
+            "});" +
+        "}";
+
+    /**
+     * Outcome of one stability wait: total time and when each phase settled (-1 = not settled)
+     */
+    public static class Result {
+        private final boolean stable;
+        private final long waitedMs;
+        private final Map<String, Long> phases;
+
+        Result(boolean stable, long waitedMs, Map<String, Long> phases) {
+            this.stable = stable;
+            this.waitedMs = waitedMs;
+            this.phases = phases;
+        }
+
+        public boolean isStable() {
+            return stable;
+        }
+
+        public long getWaitedMs() {
+            return waitedMs;
+        }
+
+        public Map<String, Long> getPhases() {
+            return phases;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder breakdown = new StringBuilder(stable ? "stable" : "unstable").append(" after ").append(waitedMs).append(" ms [");
+            phases.forEach((name, at) -> breakdown.append(' ').append(name).append('=').append(at < 0 ? "pending" : at + "ms"));
+            return breakdown.append(" ]").toString();
+        }
+    }
+
+    private final Page page;
+
+    public PageStabilityWait(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * Wait until every phase holds at the same time, within timeoutMs overall
+     * @throws TimeoutError when readyState, jQuery or pending requests are still unsettled at the timeout
+     */
+    public Result waitForStability(int timeoutMs) {
+        long start = System.currentTimeMillis();
+        Map<String, Object> args = new HashMap<>();
+        args.put("spinners", SPINNER_SELECTOR);
+        args.put("quietMs", ConfigReader.getIntProperty("quietWindowMs", DEFAULT_QUIET_WINDOW));
+        args.put("pollMs", POLL_INTERVAL);
+
+        Object raw = null;
+        // A navigation destroys the execution context mid-wait; let the new document load and evaluate again
+        for (int attempt = 0; attempt < 2 && raw == null; attempt++) {
+            try {
+                args.put("timeoutMs", Math.max(0, timeoutMs - (System.currentTimeMillis() - start)));
+                raw = page.evaluate(STABILITY_SCRIPT, args);
+            } catch (PlaywrightException e) {
+                if (attempt > 0) throw e;
+                page.waitForLoadState(LoadState.LOAD,
+                    new Page.WaitForLoadStateOptions().setTimeout(Math.max(1, timeoutMs - (System.currentTimeMillis() - start))));
+            }
+        }
+
+        Result result = toResult(raw, System.currentTimeMillis() - start);
+        if (result.isStable()) {
+            LoggerUtil.logPerformance("Page stability " + result, result.getWaitedMs());
+            return result;
+        }
+        for (String phase : REQUIRED_PHASES) {
+            if (result.getPhases().getOrDefault(phase, -1L) < 0) {
+                throw new TimeoutError("Page did not become stable within " + timeoutMs + " ms: " + result);
+            }
+        }
+        LoggerUtil.logWarn("Page stability wait gave up on spinners / DOM quiet: {}", result);
+        return result;
+    }
+
+    private static Result toResult(Object raw, long waitedMs) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        boolean stable = false;
+        if (raw instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) raw;
+            stable = Boolean.TRUE.equals(map.get("stable"));
+            Object rawPhases = map.get("phases");
+            if (rawPhases instanceof Map) {
+                ((Map<?, ?>) rawPhases).forEach((name, at) -> phases.put(String.valueOf(name), ((Number) at).longValue()));
+            }
+        }
+        return new Result(stable, waitedMs, phases);
+    }
+}
@@ -0,0 +1,291 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.microsoft.playwright.Page;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PaginationHttpValidator - Checks pagination targets over HTTP instead of clicking through them
+ * The link targets are collected in one pass and fetched concurrently from inside the page, so the requests
+ * carry the browser session, and each returned document is checked with jsoup (status, error markers,
+ * expected page marker, page parameter, current-page indicator). Nothing is rendered and the page under
+ * test does not navigate.
+ *
+ * Settings: paginationCheckConcurrency (default 6), paginationCheckTimeoutMs (default 30000)
+ */
+public class PaginationHttpValidator {
+
+    private static final int DEFAULT_CONCURRENCY = 6;
+    private static final int DEFAULT_TIMEOUT = 30000;
+    private static final Pattern PAGE_PARAM = Pattern.compile("[?&]page=(\\d+)");
+
+    // Link text and absolute href of every matched anchor
+    private static final String TARGETS_SCRIPT =
+        "links => links.map(a => ({ label: (a.textContent || '').trim(), url: a.href }))";
+
+    // Fetches every URL with at most args.concurrency requests in flight; never rejects, failures come back as status 0
+    private static final String FETCH_SCRIPT =
+        "async (args) => {" +
+            "const results = new Array(args.urls.length);" +
+            "let next = 0;" +
+            "const worker = async () => {" +
+                "while (next < args.urls.length) {" +
+                    "const i = next++;" +
+                    "const controller = new AbortController();" +
+                    "const timer = setTimeout(() => controller.abort(), args.timeoutMs);" +
+                    "const start = performance.now();" +
+                    "try {" +
+                        "const response = await fetch(args.urls[i], { credentials: 'same-origin', signal: controller.signal });" +
+                        "const html = await response.text();" +
+                        "results[i] = { status: response.status, url: response.url, html: html, ms: Math.round(performance.now() - start) };" +
+                    "} catch (e) {" +
+                        "results[i] = { status: 0, url: args.urls[i], error: String(e), ms: Math.round(performance.now() - start) };" +
+                    "} finally {" +
+                        "clearTimeout(timer);" +
+                    "}" +
+                "}" +
+            "};" +
+            "await Promise.all(Array.from({ length: Math.min(args.concurrency, args.urls.length) }, worker));" +
+            "return results;" +
+        "}";
+
+    private final Page page;
+
+    public PaginationHttpValidator(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * One pagination link: its text, absolute URL and the page= value of that URL (0 when absent)
+     */
+    public static class LinkTarget {
+        private final String label;
+        private final String url;
+        private final int pageNumber;
+
+        private LinkTarget(String label, String url) {
+            this.label = label;
+            this.url = url;
+            this.pageNumber = pageNumberOf(url);
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getPageNumber() {
+            return pageNumber;
+        }
+    }
+
+    /**
+     * Outcome of fetching one link target; problem is null when the page checked out
+     */
+    public static class PageCheck {
+        private final LinkTarget target;
+        private final int status;
+        private final String finalUrl;
+        private final long durationMs;
+        private final int currentPage;
+        private final String problem;
+
+        private PageCheck(LinkTarget target, int status, String finalUrl, long durationMs, String problem) {
+            this(target, status, finalUrl, durationMs, 0, problem);
+        }
+
+        private PageCheck(LinkTarget target, int status, String finalUrl, long durationMs, int currentPage, String problem) {
+            this.target = target;
+            this.status = status;
+            this.finalUrl = finalUrl;
+            this.durationMs = durationMs;
+            this.currentPage = currentPage;
+            this.problem = problem;
+        }
+
+        public LinkTarget getTarget() {
+            return target;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getFinalUrl() {
+            return finalUrl;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        /**
+         * Page number shown as current in the fetched document, 0 when it was not checked or not found
+         */
+        public int getCurrentPage() {
+            return currentPage;
+        }
+
+        public String getProblem() {
+            return problem;
+        }
+
+        public boolean isOk() {
+            return problem == null;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + target.getLabel() + "' " + target.getUrl() + " - HTTP " + status + ", " + durationMs + " ms"
+                + (problem == null ? "" : ", " + problem);
+        }
+    }
+
+    /**
+     * Collect the targets of every link matched by a Playwright selector with a single round trip
+     */
+    public List<LinkTarget> collectTargets(String linkSelector) {
+        List<LinkTarget> targets = new ArrayList<>();
+        Object links = page.locator(linkSelector).evaluateAll(TARGETS_SCRIPT);
+        if (links instanceof List) {
+            for (Object link : (List<?>) links) {
+                Map<?, ?> values = (Map<?, ?>) link;
+                Object url = values.get("url");
+                if (url != null && !url.toString().isEmpty()) {
+                    targets.add(new LinkTarget(String.valueOf(values.get("label")), url.toString()));
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Fetch every target (each distinct URL once) and check the returned document
+     *
+     * @param pageMarker   jsoup CSS selector that must match on a valid results page
+     * @param errorMarkers texts that mark an error page when found in the title or a heading (case-insensitive)
+     * @return one check per target, in target order
+     */
+    public List<PageCheck> check(List<LinkTarget> targets, String pageMarker, List<String> errorMarkers) {
+        return check(targets, pageMarker, null, errorMarkers);
+    }
+
+    /**
+     * Fetch every target (each distinct URL once) and check the returned document, including that the page it
+     * marks as current is the page the link targets
+     *
+     * @param pageMarker          jsoup CSS selector that must match on a valid results page
+     * @param currentPageSelector jsoup CSS selector for the current-page indicator of the pagination, whose own text
+     *                            is the page number; null to skip the check
+     * @param errorMarkers        texts that mark an error page when found in the title or a heading (case-insensitive)
+     * @return one check per target, in target order
+     */
+    public List<PageCheck> check(List<LinkTarget> targets, String pageMarker, String currentPageSelector, List<String> errorMarkers) {
+        Map<String, Integer> urlIndex = new LinkedHashMap<>();
+        for (LinkTarget target : targets) {
+            urlIndex.putIfAbsent(target.getUrl(), urlIndex.size());
+        }
+        List<PageCheck> checks = new ArrayList<>();
+        if (urlIndex.isEmpty()) {
+            return checks;
+        }
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("urls", new ArrayList<>(urlIndex.keySet()));
+        args.put("concurrency", Math.max(1, ConfigReader.getIntProperty("paginationCheckConcurrency", DEFAULT_CONCURRENCY)));
+        args.put("timeoutMs", ConfigReader.getIntProperty("paginationCheckTimeoutMs", DEFAULT_TIMEOUT));
+        long start = System.currentTimeMillis();
+        List<?> responses = (List<?>) page.evaluate(FETCH_SCRIPT, args);
+        long elapsed = System.currentTimeMillis() - start;
+        WaitStatistics.record("paginationHttpCheck", pageMarker, elapsed, false);
+
+        for (LinkTarget target : targets) {
+            Map<?, ?> response = (Map<?, ?>) responses.get(urlIndex.get(target.getUrl()));
+            checks.add(checkResponse(target, response, pageMarker, currentPageSelector, errorMarkers));
+        }
+        long failed = checks.stream().filter(check -> !check.isOk()).count();
+        LoggerUtil.logInfo("Checked {} pagination links ({} distinct pages) over HTTP in {} ms, {} failed",
+            targets.size(), urlIndex.size(), elapsed, failed);
+        return checks;
+    }
+
+    private static PageCheck checkResponse(LinkTarget target, Map<?, ?> response, String pageMarker,
+                                           String currentPageSelector, List<String> errorMarkers) {
+        int status = ((Number) response.get("status")).intValue();
+        String finalUrl = String.valueOf(response.get("url"));
+        long durationMs = ((Number) response.get("ms")).longValue();
+        if (status == 0) {
+            return new PageCheck(target, status, finalUrl, durationMs, "request failed: " + response.get("error"));
+        }
+        if (status < 200 || status >= 300) {
+            return new PageCheck(target, status, finalUrl, durationMs, "HTTP status " + status);
+        }
+
+        Document document = Jsoup.parse(String.valueOf(response.get("html")), finalUrl);
+        String headings = (document.title() + " " + document.select("h1, h2").text()).toLowerCase(Locale.ROOT);
+        for (String marker : errorMarkers) {
+            if (headings.contains(marker.toLowerCase(Locale.ROOT))) {
+                return new PageCheck(target, status, finalUrl, durationMs, "error page ('" + marker + "')");
+            }
+        }
+        if (document.select(pageMarker).isEmpty()) {
+            return new PageCheck(target, status, finalUrl, durationMs, "page marker " + pageMarker + " not found");
+        }
+        if (target.getPageNumber() > 0 && pageNumberOf(finalUrl) != target.getPageNumber()) {
+            return new PageCheck(target, status, finalUrl, durationMs,
+                "expected page " + target.getPageNumber() + " but got " + finalUrl);
+        }
+        if (currentPageSelector == null || target.getPageNumber() <= 0) {
+            return new PageCheck(target, status, finalUrl, durationMs, null);
+        }
+        // The server can ignore or clamp page= and still answer with a results page for the same URL
+        int currentPage = currentPageOf(document, currentPageSelector);
+        if (currentPage == 0) {
+            return new PageCheck(target, status, finalUrl, durationMs, currentPage,
+                "current page indicator " + currentPageSelector + " not found");
+        }
+        if (currentPage != target.getPageNumber()) {
+            return new PageCheck(target, status, finalUrl, durationMs, currentPage,
+                "expected page " + target.getPageNumber() + " but the page shows " + currentPage + " as current");
+        }
+        return new PageCheck(target, status, finalUrl, durationMs, currentPage, null);
+    }
+
+    /**
+     * Number in the own text of the first matched element whose own text is numeric, 0 when there is none.
+     * Own text only, so wrappers of the whole control ("Pages: 1 2 3 Next") never match, while a list element
+     * that shows the current page as a bare text node between the links does.
+     */
+    private static int currentPageOf(Document document, String currentPageSelector) {
+        for (Element indicator : document.select(currentPageSelector)) {
+            String text = indicator.ownText().trim();
+            if (text.matches("\\d+")) {
+                return Integer.parseInt(text);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * page= value of a URL, 0 when it has none
+     */
+    public static int pageNumberOf(String url) {
+        Matcher matcher = PAGE_PARAM.matcher(url);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+}
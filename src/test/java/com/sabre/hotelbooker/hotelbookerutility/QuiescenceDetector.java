@@ -0,0 +1,132 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.LoadState;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * QuiescenceDetector - Waits until the page has settled instead of sleeping for a fixed time
+ * The page is quiet when no DOM mutation has happened in the target subtree for the quiet window
+ * and no XHR / fetch / jQuery request is in flight. Returns as soon as that holds, or gives up
+ * (without failing) at the timeout, so it can stand in for a fixed sleep
+ *
+ * Settings: quietWindowMs (default 300), quietTimeoutMs (default 10000)
+ */
+public class QuiescenceDetector {
+
+    private static final int DEFAULT_QUIET_WINDOW = 300;
+    private static final int DEFAULT_QUIET_TIMEOUT = 10000;
+    private static final int POLL_INTERVAL = 50;
+
+    // Counts XHR and fetch calls in flight; installed once per document and only sees requests started after that
+    static final String TRACKER_SCRIPT =
+        "() => {" +
+            "if (window.__hbInFlight !== undefined) return;" +
+            "window.__hbInFlight = 0;" +
+            "const done = () => { window.__hbInFlight = Math.max(0, window.__hbInFlight - 1); };" +
+            "const send = XMLHttpRequest.prototype.send;" +
+            "XMLHttpRequest.prototype.send = function(...args) {" +
+                "window.__hbInFlight++;" +
+                "this.addEventListener('loadend', done, { once: true });" +
+                "return send.apply(this, args);" +
+            "};" +
+            "if (window.fetch) {" +
+                "const originalFetch = window.fetch;" +
+                "window.fetch = function(...args) {" +
+                    "window.__hbInFlight++;" +
+                    "return originalFetch.apply(this, args).finally(done);" +
+                "};" +
+            "}" +
+        "}";
+
+    // Resolves once the root subtree has been mutation-free for quietMs with nothing in flight, or at timeoutMs
+    private static final String QUIET_SCRIPT =
+        "(args) => new Promise(resolve => {" +
+            "const root = (args.selector && document.querySelector(args.selector)) || document.documentElement;" +
+            "const start = performance.now();" +
+            "let lastMutation = start;" +
+            "let mutations = 0;" +
+            "const observer = new MutationObserver(records => { mutations += records.length; lastMutation = performance.now(); });" +
+            "observer.observe(root, { childList: true, subtree: true, attributes: true, characterData: true });" +
+            "const inFlight = () => (window.__hbInFlight || 0) + (typeof jQuery !== 'undefined' && jQuery.active ? jQuery.active : 0);" +
+            "const check = () => {" +
+                "const now = performance.now();" +
+                "const quiet = now - lastMutation >= args.quietMs && inFlight() === 0 && document.readyState === 'complete';" +
+                "if (quiet || now - start >= args.timeoutMs) {" +
+                    "observer.disconnect();" +
+                    "resolve({ quiet: quiet, mutations: mutations, inFlight: inFlight() });" +
+                "} else {" +
+                    "setTimeout(check, args.pollMs);" +
+                "}" +
+            "};" +
+            "setTimeout(check, args.pollMs);" +
+        "})";
+
+    private final Page page;
+
+    public QuiescenceDetector(Page page) {
+        this.page = page;
+    }
+
+    /**
+     * Wait until the whole document is quiet, using the configured quiet window and timeout
+     * @return milliseconds actually waited
+     */
+    public long waitForQuiet() {
+        return waitForQuiet(null);
+    }
+
+    /**
+     * Wait until the subtree under rootSelector is quiet (whole document when null or not found)
+     * @return milliseconds actually waited
+     */
+    public long waitForQuiet(String rootSelector) {
+        return waitForQuiet(rootSelector,
+            ConfigReader.getIntProperty("quietWindowMs", DEFAULT_QUIET_WINDOW),
+            ConfigReader.getIntProperty("quietTimeoutMs", DEFAULT_QUIET_TIMEOUT));
+    }
+
+    /**
+     * Wait until the subtree under rootSelector has had no mutations for quietWindowMs and no requests in flight
+     * @return milliseconds actually waited
+     */
+    public long waitForQuiet(String rootSelector, int quietWindowMs, int timeoutMs) {
+        long start = System.currentTimeMillis();
+        Map<String, Object> args = new HashMap<>();
+        args.put("selector", rootSelector);
+        args.put("quietMs", quietWindowMs);
+        args.put("timeoutMs", timeoutMs);
+        args.put("pollMs", POLL_INTERVAL);
+
+        Object result = null;
+        // A navigation destroys the execution context mid-wait; let the new document load and measure again
+        for (int attempt = 0; attempt < 2 && result == null; attempt++) {
+            try {
+                page.evaluate(TRACKER_SCRIPT);
+                int remaining = (int) Math.max(0, timeoutMs - (System.currentTimeMillis() - start));
+                args.put("timeoutMs", remaining);
+                result = page.evaluate(QUIET_SCRIPT, args);
+            } catch (PlaywrightException e) {
+                if (attempt > 0) throw e;
+                page.waitForLoadState(LoadState.DOMCONTENTLOADED,
+                    new Page.WaitForLoadStateOptions().setTimeout(Math.max(1, timeoutMs - (System.currentTimeMillis() - start))));
+            }
+        }
+
+        long waited = System.currentTimeMillis() - start;
+        String target = rootSelector == null ? "document" : rootSelector;
+        boolean quiet = result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("quiet"));
+        WaitStatistics.record("waitForQuiet", target, waited, !quiet);
+        if (quiet) {
+            LoggerUtil.logPerformance("Quiet wait on " + target, waited);
+        } else {
+            LoggerUtil.logWarn("Page not quiet on {} after {} ms (window {} ms): {}", target, waited, quietWindowMs, result);
+        }
+        return waited;
+    }
+}
@@ -0,0 +1,178 @@
+package com.sabre.hotelbooker.hotelbookerutility;
+
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * WaitStatistics - Run-wide histograms of wait durations keyed by wait type and selector
+ * Recording is lock-free: one counter per logarithmic bucket (about 10% wide), so percentiles are
+ * accurate to a bucket and memory stays fixed however many waits run. Written once per run as
+ * wait-times.csv in the report directory and summarised on the Extent dashboard.
+ */
+public class WaitStatistics {
+
+    private static final double BUCKET_GROWTH = Math.log(1.1);
+    private static final int BUCKETS = 200; // 1.1^200 ms is far beyond any timeout
+
+    private static final Map<String, Site> sites = new ConcurrentHashMap<>();
+
+    /**
+     * Durations recorded for one wait site
+     */
+    public static class Site {
+        private final String type;
+        private final String selector;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+
+        private Site(String type, String selector) {
+            this.type = type;
+            this.selector = selector;
+        }
+
+        private void add(long durationMs, boolean timedOut) {
+            buckets.incrementAndGet(bucketOf(durationMs));
+            count.increment();
+            totalMs.add(durationMs);
+            maxMs.accumulate(durationMs);
+            if (timedOut) timeouts.increment();
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getSelector() {
+            return selector;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getTotalMs() {
+            return totalMs.sum();
+        }
+
+        public long getMaxMs() {
+            return maxMs.get();
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile, never above the observed max
+         */
+        public long getPercentileMs(double percentile) {
+            long total = getCount();
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(getMaxMs(), (long) Math.floor(Math.exp((i + 1) * BUCKET_GROWTH)) - 1);
+                }
+            }
+            return getMaxMs();
+        }
+    }
+
+    private WaitStatistics() {
+    }
+
+    /**
+     * Record one wait. timedOut marks waits that gave up or failed at their timeout.
+     */
+    public static void record(String type, String selector, long durationMs, boolean timedOut) {
+        String key = type + "\u0000" + selector;
+        sites.computeIfAbsent(key, k -> new Site(type, selector)).add(Math.max(0, durationMs), timedOut);
+    }
+
+    /**
+     * All wait sites, highest cumulative wait time first
+     */
+    public static List<Site> getSitesByTotalTime() {
+        List<Site> ranked = new ArrayList<>(sites.values());
+        ranked.sort(Comparator.comparingLong(Site::getTotalMs).reversed());
+        return ranked;
+    }
+
+    /**
+     * One-line summary over every wait: count, total and the p50/p95/max of per-site histograms merged
+     */
+    public static String getSummary() {
+        List<Site> ranked = getSitesByTotalTime();
+        if (ranked.isEmpty()) {
+            return "no waits recorded";
+        }
+        Site all = new Site("all", "all");
+        for (Site site : ranked) {
+            for (int i = 0; i < BUCKETS; i++) {
+                all.buckets.addAndGet(i, site.buckets.get(i));
+            }
+            all.count.add(site.getCount());
+            all.timeouts.add(site.getTimeouts());
+            all.totalMs.add(site.getTotalMs());
+            all.maxMs.accumulate(site.getMaxMs());
+        }
+        return String.format("%d waits at %d sites, total %.1f s, p50 %d ms, p95 %d ms, max %d ms, %d timed out",
+            all.getCount(), ranked.size(), all.getTotalMs() / 1000.0, all.getPercentileMs(50), all.getPercentileMs(95),
+            all.getMaxMs(), all.getTimeouts());
+    }
+
+    /**
+     * The top wait sites by cumulative time, one line each
+     */
+    public static List<String> getTopSites(int limit) {
+        return getSitesByTotalTime().stream()
+            .limit(limit)
+            .map(site -> String.format("%s %s - total %.1f s over %d waits, p50 %d ms, p95 %d ms, max %d ms%s",
+                site.getType(), site.getSelector(), site.getTotalMs() / 1000.0, site.getCount(),
+                site.getPercentileMs(50), site.getPercentileMs(95), site.getMaxMs(),
+                site.getTimeouts() > 0 ? ", " + site.getTimeouts() + " timed out" : ""))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Write every site as a CSV row, highest cumulative time first
+     */
+    public static void writeCsv(Path file) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("type,selector,count,timeouts,total_ms,p50_ms,p95_ms,max_ms");
+            for (Site site : getSitesByTotalTime()) {
+                writer.printf("%s,%s,%d,%d,%d,%d,%d,%d%n", csv(site.getType()), csv(site.getSelector()), site.getCount(),
+                    site.getTimeouts(), site.getTotalMs(), site.getPercentileMs(50), site.getPercentileMs(95), site.getMaxMs());
+            }
+            LoggerUtil.logInfo("Wait time histogram written to {}", file);
+        } catch (IOException e) {
+            LoggerUtil.logWarn("Could not write wait time histogram {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static int bucketOf(long durationMs) {
+        return (int) Math.min(BUCKETS - 1, Math.floor(Math.log(durationMs + 1) / BUCKET_GROWTH));
+    }
+
+    private static String csv(String value) {
+        return "\"" + String.valueOf(value).replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,120 @@
+package com.sabre.hotelbooker.pageobjects;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.WaitUntilState;
+import com.sabre.hotelbooker.hotelbookerutility.WaitStatistics;
+import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+import com.sabre.hotelbooker.playwrightbase.NetworkActivityTracker;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * AvailabilityResultsIterator - Lazy iterator over the results pages, one list of hotel cards per page
+ * A page is read only when the consumer asks for it, so a consumer that stops on page N never waits for
+ * page N+1. While the cards of page N are being consumed, page N+1 is already loading in a background tab
+ * of the same context (same session), so crossing a page boundary costs an evaluate instead of a click and
+ * a full page load. The foreground page is never navigated; use HotelAvailabilityPageObjects.showResultsPage(card)
+ * to act on a card from a later page.
+ *
+ * The background tab is closed when the results are exhausted or the iterator is closed.
+ */
+class AvailabilityResultsIterator implements Iterator<List<HotelCard>>, AutoCloseable {
+
+    private static final int PREFETCH_TIMEOUT = 60000;
+
+    private final Page foreground;
+    // Cards of the page next() returns, null until the consumer asks for it
+    private List<HotelCard> nextPage;
+    private Page prefetchTab;
+    // Page being loaded in the prefetch tab, null when there is no further page
+    private String prefetchUrl;
+    private int prefetchPageNumber;
+
+    AvailabilityResultsIterator(HotelAvailabilityPageObjects availabilityPage, Page foreground) {
+        this.foreground = foreground;
+        nextPage = availabilityPage.getHotelCards();
+        int currentPage = HotelAvailabilityPageObjects.getResultsPageNumber(foreground.url());
+        startPrefetch(HotelAvailabilityPageObjects.getPageUrl(foreground, currentPage + 1), currentPage + 1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage == null && prefetchUrl != null) {
+            nextPage = advance();
+        }
+        if (nextPage == null) {
+            close();
+        }
+        return nextPage != null;
+    }
+
+    /**
+     * Cards of the next results page (empty when the page lists no hotels)
+     */
+    @Override
+    public List<HotelCard> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more results pages");
+        }
+        List<HotelCard> cards = nextPage;
+        nextPage = null;
+        return cards;
+    }
+
+    /**
+     * Read the cards of the prefetched page and start loading the page after it
+     */
+    private List<HotelCard> advance() {
+        long start = System.currentTimeMillis();
+        String url = prefetchUrl;
+        int pageNumber = prefetchPageNumber;
+        try {
+            prefetchTab.waitForURL(loaded -> HotelAvailabilityPageObjects.getResultsPageNumber(loaded) == pageNumber, new Page.WaitForURLOptions()
+                .setWaitUntil(WaitUntilState.LOAD).setTimeout(PREFETCH_TIMEOUT));
+        } catch (PlaywrightException e) {
+            // The background navigation was lost or failed; load the page directly
+            LoggerUtil.logWarn("Prefetch of results page {} did not complete ({}), loading it directly", pageNumber, e.getMessage());
+            prefetchTab.navigate(url, new Page.NavigateOptions().setTimeout(PREFETCH_TIMEOUT));
+        }
+        WaitStatistics.record("waitForPrefetch", "results page", System.currentTimeMillis() - start, false);
+        List<HotelCard> cards = HotelAvailabilityPageObjects.readHotelCards(prefetchTab, pageNumber);
+        startPrefetch(HotelAvailabilityPageObjects.getPageUrl(prefetchTab, pageNumber + 1), pageNumber + 1);
+        return cards;
+    }
+
+    /**
+     * Start loading a results page in the background tab without waiting for it
+     */
+    private void startPrefetch(String url, int pageNumber) {
+        prefetchUrl = url;
+        prefetchPageNumber = pageNumber;
+        if (url == null) {
+            return;
+        }
+        if (prefetchTab == null) {
+            prefetchTab = foreground.context().newPage();
+            NetworkActivityTracker tracker = NetworkActivityTracker.of(foreground.context());
+            if (tracker != null) {
+                tracker.ignorePage(prefetchTab);
+            }
+        }
+        // Navigate from inside the page so this call returns at once instead of after the server responds
+        prefetchTab.evaluate("url => { setTimeout(() => { window.location.href = url; }, 0); }", url);
+    }
+
+    @Override
+    public void close() {
+        prefetchUrl = null;
+        if (prefetchTab != null) {
+            try {
+                prefetchTab.close();
+            } catch (PlaywrightException e) {
+                // Context already closed
+            }
+            prefetchTab = null;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.sabre.hotelbooker.pageobjects;
 
 import com.microsoft.playwright.Page;
 import com.sabre.hotelbooker.hotelbookerutility.ExplicitWaitUtility;
+import com.sabre.hotelbooker.hotelbookerutility.LocatorBatchReader;
+import com.sabre.hotelbooker.playwrightbase.PlayWrightBaseTest;
 
 /**
  * ClientSelectionPageObjects - Focused Page Object for Client Selection Modal
@@ -45,13 +47,17 @@ public class ClientSelectionPageObjects {
      * Select client by name
      */
     public void selectClient(String clientName) {
+        // A restored login session does not pop the modal on its own - open it from the header
+        if (PlayWrightBaseTest.isSessionSeeded() && !isClientModalVisible() && page.isVisible(HEADER_CLIENT)) {
+            page.click(HEADER_CLIENT);
+        }
         waitForClientModalToLoad();
-        // Find all h2 elements and click the one with matching text
-        for (com.microsoft.playwright.Locator locator : page.locator(CLIENT_HEADING).all()) {
-            String text = locator.textContent().trim();
+        // Read all h2 headings in one round trip and click the one with matching text
+        for (LocatorBatchReader.ElementSnapshot heading : LocatorBatchReader.read(page.locator(CLIENT_HEADING))) {
+            String text = heading.getText();
             if (text.equalsIgnoreCase(clientName) || text.replaceAll("\\s+", "").equalsIgnoreCase(clientName.replaceAll("\\s+", ""))) {
                 waitUtility.waitForElementClickable(CLIENT_HEADING);
-                locator.click();
+                page.locator(CLIENT_HEADING).nth(heading.getIndex()).click();
                 waitUtility.waitForElementToDisappear(CLIENT_MODAL);
                 return;
             }
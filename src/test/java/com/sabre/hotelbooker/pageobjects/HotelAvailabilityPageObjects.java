@@ -2,13 +2,30 @@ package com.sabre.hotelbooker.pageobjects;
 
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
 import com.microsoft.playwright.options.SelectOption;
 import com.microsoft.playwright.options.WaitForSelectorState;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
 import com.sabre.hotelbooker.hotelbookerutility.ExplicitWaitUtility;
+import com.sabre.hotelbooker.hotelbookerutility.LocatorBatchReader;
+import com.sabre.hotelbooker.hotelbookerutility.PaginationHttpValidator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * HotelAvailabilityPageObjects - Complete Page Object for Hotel Availability/Search Results Page
@@ -25,6 +42,12 @@ public class HotelAvailabilityPageObjects {
 
     // Search Results Header
     private static final String SEARCH_RESULTS_HEADER = "h1:has-text('Dallas:')";
+    // jsoup selector / texts for pages fetched over HTTP (see PaginationHttpValidator)
+    private static final String RESULTS_PAGE_MARKER = "h1:contains(Dallas:)";
+    private static final List<String> ERROR_PAGE_MARKERS = Arrays.asList("Error", "404", "Not Found");
+    // Current page of the paging control: a span, or a bare number in the list between the links
+    private static final String RESULTS_CURRENT_PAGE =
+            "#ctl00_cphMainContent_pnlPageingControls span, #ctl00_cphMainContent_pnlPageingControls > div > div";
     private static final String HOTELS_FOUND_COUNT = "h1:has-text('properties found')";
     private static final String LOCATION_RESULTS = "text=Returned 100 hotels in Dallas - Location";
 
@@ -42,14 +65,17 @@ public class HotelAvailabilityPageObjects {
     private static final String PAGINATION_PAGES_LABEL = "strong:has-text('Pages:')";
     private static final String PAGINATION_CONTAINER = "div:has(strong:has-text('Pages:'))";
     private static final String PAGE_LINKS = "//div[@id='ctl00_cphMainContent_pnlPageingControls']/div/div/a";
+    private static final String PAGINATION_TARGETS = "a[href*='page=']";
     private static final String PREVIOUS_LINK = "link:has-text('Previous')";
     private static final String NEXT_LINK = "link:has-text('Next')";
-    private static final String CURRENT_PAGE_INDICATOR = "span:not([href])"; // Current page is usually a span, not a link
+    private static final String CURRENT_PAGE_INDICATOR = "#ctl00_cphMainContent_pnlPageingControls span"; // Current page is usually a span, not a link
 
     // ============= HOTEL LIST ELEMENTS =============
 
     // Hotel Card Container
     private static final String HOTEL_CARD_CONTAINER = "//div[@id='ctl00_cphMainContent_pnlHotels']/div[@class='hotelResult solid-border spacer-10top']";
+    private static final String HOTEL_RESULTS_PANEL = "#ctl00_cphMainContent_pnlHotels";
+    private static final int RATES_LOADING_TIMEOUT = 10000;
     private static final String HOTEL_REPEATER = "#ctl00_cphMainContent_HotelRepeater";
 
     // Individual Hotel Elements (Dynamic - using indices)
@@ -135,6 +161,85 @@ public class HotelAvailabilityPageObjects {
     private static final String SPORTING_RATE = "text=Sporting";
     private static final String ATTRACTION_RATE = "text=Attraction";
 
+    // ============= BULK EXTRACTION =============
+
+    // Rate rows of a hotel card (relative to the card)
+    private static final String HOTEL_CARD_RATE_ITEMS = "//div[starts-with(@id, 'rates')]/div/div";
+    private static final String HOTEL_CARD_PROVIDERS = ".activeContentProviderRow ul.list-inline li";
+    private static final int RATES_BATCH_TIMEOUT = 60000;
+    private static final Pattern PAGE_NUMBER_PARAM = Pattern.compile("[?&]page=(\\d+)");
+
+    // Absolute href of the pagination link to page N (links carry page=N)
+    private static final String PAGE_URL_SCRIPT =
+            "(pageNumber) => {" +
+                "const link = Array.from(document.querySelectorAll(\"a[href*='page=']\")).find(a => {" +
+                    "const match = a.getAttribute('href').match(/[?&]page=(\\d+)/);" +
+                    "return match && parseInt(match[1], 10) === pageNumber;" +
+                "});" +
+                "return link ? link.href : null;" +
+            "}";
+
+    // Every hotel card on the current results page in one round trip
+    private static final String HOTEL_CARDS_SCRIPT =
+            "(args) => {" +
+                "const text = (root, selector) => { const el = root.querySelector(selector); return el ? el.textContent.trim() : ''; };" +
+                "const all = (root, selector) => Array.from(root.querySelectorAll(selector)).map(el => el.textContent.trim());" +
+                "const cards = document.evaluate(args.cards, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+                "const result = [];" +
+                "for (let i = 0; i < cards.snapshotLength; i++) {" +
+                    "const card = cards.snapshotItem(i);" +
+                    "result.push({" +
+                        "name: text(card, args.name)," +
+                        "address: text(card, '.hotelAddress')," +
+                        "contact: text(card, '.hotelContactDetails')," +
+                        "location: text(card, '#LocationDetails')," +
+                        "tags: all(card, '#divTags ul.nav-pills li')," +
+                        "providers: all(card, args.providers)" +
+                    "});" +
+                "}" +
+                "return result;" +
+            "}";
+
+    // Every rate row of the given expanded hotel cards, including the collapsed full rate information
+    private static final String HOTEL_CARD_RATES_SCRIPT =
+            "(args) => {" +
+                "const text = (root, selector) => { const el = root.querySelector(selector); return el ? el.textContent.trim() : ''; };" +
+                "const cards = document.evaluate(args.cards, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+                "return args.indices.map(index => {" +
+                    "const card = cards.snapshotItem(index);" +
+                    "if (!card) return [];" +
+                    "const rates = document.evaluate('.' + args.rates, card, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+                    "const result = [];" +
+                    "for (let k = 0; k < rates.snapshotLength; k++) {" +
+                        "const rate = rates.snapshotItem(k);" +
+                        "const policy = rate.querySelector('#divCancellationPolicy > p');" +
+                        "result.push({" +
+                            "provider: text(rate, 'div.rateDescription b big').replace(/[()\\n\\r]/g, '').trim()," +
+                            "roomType: text(rate, '.roomType')," +
+                            "rateDescription: text(rate, '.rateDescription')," +
+                            "policy: policy ? policy.textContent.trim() : ''," +
+                            "policyDetails: text(rate, '#divCancellationPolicy')," +
+                            "price: text(rate, '.ratePrice h4')," +
+                            "breakdown: text(rate, '.productFullInfo')" +
+                        "});" +
+                    "}" +
+                    "return result;" +
+                "});" +
+            "}";
+
+    // True once every given card has finished loading its rates (no loading indicator, rates or Hide Availability shown)
+    private static final String HOTEL_CARD_RATES_LOADED_SCRIPT =
+            "(args) => {" +
+                "const cards = document.evaluate(args.cards, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+                "return args.indices.every(index => {" +
+                    "const card = cards.snapshotItem(index);" +
+                    "if (!card) return true;" +
+                    "const rows = document.evaluate('count(.' + args.rates + ')', card, null, XPathResult.NUMBER_TYPE, null).numberValue;" +
+                    "const shown = card.innerText;" +
+                    "return !shown.includes('Checking Availability') && (rows > 0 || shown.includes('Hide Availability'));" +
+                "});" +
+            "}";
+
     /**
      * Constructor
      */
@@ -196,14 +301,7 @@ public class HotelAvailabilityPageObjects {
      * Get available sort options
      */
     public List<String> getAvailableSortOptions() {
-        List<String> options = new ArrayList<>();
-        Locator sortDropdown = page.locator(SORT_DROPDOWN);
-        Locator optionElements = sortDropdown.locator("option");
-
-        for (int i = 0; i < optionElements.count(); i++) {
-            options.add(optionElements.nth(i).textContent().trim());
-        }
-        return options;
+        return LocatorBatchReader.readTexts(page.locator(SORT_DROPDOWN).locator("option"));
     }
 
     /**
@@ -232,14 +330,13 @@ public class HotelAvailabilityPageObjects {
     }
 
     /**
-     * Get all available page numbers
+     * Get all available page numbers, including the current page, which has no link
      */
     public List<Integer> getAvailablePageNumbers() {
-        List<Integer> pageNumbers = new ArrayList<>();
-        Locator pageLinks = page.locator(PAGE_LINKS);
-
-        for (int i = 0; i < pageLinks.count(); i++) {
-            String linkText = pageLinks.nth(i).textContent().trim();
+        Set<Integer> pageNumbers = new TreeSet<>();
+        List<String> texts = new ArrayList<>(LocatorBatchReader.readTexts(page.locator(PAGE_LINKS)));
+        texts.addAll(LocatorBatchReader.readTexts(page.locator(CURRENT_PAGE_INDICATOR)));
+        for (String linkText : texts) {
             try {
                 int pageNumber = Integer.parseInt(linkText);
                 pageNumbers.add(pageNumber);
@@ -247,7 +344,7 @@ public class HotelAvailabilityPageObjects {
                 // Skip non-numeric links
             }
         }
-        return pageNumbers;
+        return new ArrayList<>(pageNumbers);
     }
 
     /**
@@ -324,6 +421,8 @@ public class HotelAvailabilityPageObjects {
 
     /**
      * Comprehensive pagination validation - validates all pagination links and functionality
+     * Every link target is checked over HTTP in one concurrent pass (see PaginationHttpValidator);
+     * only one sample page is rendered in the browser.
      *
      * @return ValidationResult object with detailed validation results
      */
@@ -352,36 +451,65 @@ public class HotelAvailabilityPageObjects {
             int originalPage = getCurrentPageNumber();
             result.originalPage = originalPage;
 
-            // 4. Test each page link
+            // 4. Fetch every pagination target (page numbers, Previous/Next) concurrently over HTTP
+            PaginationHttpValidator validator = new PaginationHttpValidator(page);
+            List<PaginationHttpValidator.PageCheck> checks =
+                    validator.check(validator.collectTargets(PAGINATION_TARGETS), RESULTS_PAGE_MARKER,
+                            RESULTS_CURRENT_PAGE, ERROR_PAGE_MARKERS);
+            Map<Integer, PaginationHttpValidator.PageCheck> pageChecks = new HashMap<>();
+            for (PaginationHttpValidator.PageCheck check : checks) {
+                if (!check.isOk()) {
+                    result.linkProblems.add(check.toString());
+                }
+                if (check.getTarget().getLabel().matches("\\d+")) {
+                    pageChecks.putIfAbsent(Integer.parseInt(check.getTarget().getLabel()), check);
+                }
+            }
+
+            // 5. Page number links
             result.brokenLinks = new ArrayList<>();
             result.workingLinks = new ArrayList<>();
-
             for (Integer pageNumber : availablePages) {
-                boolean linkWorks = validateSinglePageLink(pageNumber);
-                if (linkWorks) {
+                PaginationHttpValidator.PageCheck check = pageChecks.get(pageNumber);
+                // The current page has no link; it is the page being validated
+                if ((check == null && pageNumber == originalPage) || (check != null && check.isOk())) {
                     result.workingLinks.add(pageNumber);
                 } else {
                     result.brokenLinks.add(pageNumber);
                 }
             }
 
-            // 5. Test Previous/Next navigation
-            result.isPreviousLinkWorking = validatePreviousNextNavigation(true);
-            result.isNextLinkWorking = validatePreviousNextNavigation(false);
+            // 6. Previous/Next targets
+            result.isPreviousLinkWorking = validatePreviousNextTarget(checks, true, originalPage, availablePages);
+            result.isNextLinkWorking = validatePreviousNextTarget(checks, false, originalPage, availablePages);
 
-            // 6. Test boundary navigation (First/Last page)
-            result.isBoundaryNavigationWorking = validateBoundaryNavigation();
+            // 7. Boundary pages (First/Last) - the current page has no link of its own
+            int firstPage = availablePages.stream().min(Integer::compareTo).orElse(1);
+            int lastPage = availablePages.stream().max(Integer::compareTo).orElse(1);
+            result.isBoundaryNavigationWorking = (firstPage == originalPage || result.workingLinks.contains(firstPage))
+                    && (lastPage == originalPage || result.workingLinks.contains(lastPage));
 
-            // 7. Validate page sequence integrity
+            // 8. Validate page sequence integrity
             result.isPageSequenceValid = validatePageSequenceIntegrity(availablePages);
 
-            // 8. Test URL parameter consistency
-            result.isUrlParameterConsistent = validateUrlParameterConsistency();
-
-            // 9. Restore original page
-            clickPageNumber(originalPage);
+            // 9. URL parameter consistency - each numbered link targets its own page number and the
+            //    fetched page shows that number as the current page
+            result.isUrlParameterConsistent = pageChecks.entrySet().stream()
+                    .allMatch(entry -> entry.getValue().getTarget().getPageNumber() == entry.getKey()
+                            && entry.getValue().getCurrentPage() == entry.getKey());
+
+            // 10. Render one sample page in the browser, then restore the original page
+            int samplePage = result.workingLinks.stream().filter(pageNumber -> pageNumber != originalPage).findFirst().orElse(-1);
+            if (samplePage > 0 && !validateSinglePageLink(samplePage)) {
+                result.brokenLinks.add(samplePage);
+                result.workingLinks.remove(Integer.valueOf(samplePage));
+                result.linkProblems.add("Page " + samplePage + " did not render in the browser");
+            }
+            if (samplePage > 0) {
+                clickPageNumber(originalPage);
+            }
 
-            // 10. Calculate overall success
+            // 11. Calculate overall success
             result.overallValidationPassed = result.brokenLinks.isEmpty() &&
                     result.isPreviousLinkWorking &&
                     result.isNextLinkWorking &&
@@ -389,7 +517,7 @@ public class HotelAvailabilityPageObjects {
                     result.isPageSequenceValid &&
                     result.isUrlParameterConsistent;
 
-            // 11. Generate summary message
+            // 12. Generate summary message
             if (result.overallValidationPassed) {
                 result.validationMessage = String.format(
                         "Pagination validation PASSED - %d pages tested, all links working correctly",
@@ -440,75 +568,27 @@ public class HotelAvailabilityPageObjects {
     }
 
     /**
-     * Validate Previous/Next navigation buttons
+     * Validate the Previous/Next target from the HTTP checks
      */
-    private boolean validatePreviousNextNavigation(boolean testPrevious) {
-        try {
-            String linkSelector = testPrevious ? PREVIOUS_LINK : NEXT_LINK;
-
-            // Check if button is available when it should be
-            boolean buttonVisible = page.isVisible(linkSelector);
-
-            if (!buttonVisible) {
-                // Button not visible - check if this is expected
-                int currentPage = getCurrentPageNumber();
-                List<Integer> availablePages = getAvailablePageNumbers();
-
-                if (testPrevious) {
-                    // Previous should not be visible on first page
-                    return currentPage == 1 || currentPage == availablePages.stream().min(Integer::compareTo).orElse(1);
-                } else {
-                    // Next should not be visible on last page
-                    return currentPage == availablePages.stream().max(Integer::compareTo).orElse(1);
-                }
+    private boolean validatePreviousNextTarget(List<PaginationHttpValidator.PageCheck> checks, boolean testPrevious,
+                                               int currentPage, List<Integer> availablePages) {
+        String label = testPrevious ? "Previous" : "Next";
+        PaginationHttpValidator.PageCheck check = checks.stream()
+                .filter(candidate -> candidate.getTarget().getLabel().contains(label))
+                .findFirst()
+                .orElse(null);
+
+        if (check == null) {
+            // No link - only expected on the first page (Previous) or the last page (Next)
+            if (testPrevious) {
+                return currentPage == 1 || currentPage == availablePages.stream().min(Integer::compareTo).orElse(1);
             }
-
-            // Button is visible, test if it works
-            String currentUrl = page.url();
-            page.click(linkSelector);
-            waitUtility.waitForPageLoad();
-
-            String newUrl = page.url();
-            boolean urlChanged = !currentUrl.equals(newUrl);
-
-            // Verify content loaded
-            boolean contentLoaded = page.isVisible(SEARCH_RESULTS_HEADER);
-
-            return urlChanged && contentLoaded;
-
-        } catch (Exception e) {
-            return false;
+            return currentPage == availablePages.stream().max(Integer::compareTo).orElse(1);
         }
-    }
 
-    /**
-     * Validate boundary navigation (first/last page)
-     */
-    private boolean validateBoundaryNavigation() {
-        try {
-            List<Integer> availablePages = getAvailablePageNumbers();
-            if (availablePages.size() < 2) {
-                return true; // Single page, boundary navigation not applicable
-            }
-
-            int firstPage = availablePages.stream().min(Integer::compareTo).orElse(1);
-            int lastPage = availablePages.stream().max(Integer::compareTo).orElse(1);
-
-            // Test navigation to first page
-            goToFirstPage();
-            waitUtility.waitForPageLoad();
-            boolean reachedFirst = getCurrentPageNumber() == firstPage;
-
-            // Test navigation to last page
-            goToLastPage();
-            waitUtility.waitForPageLoad();
-            boolean reachedLast = getCurrentPageNumber() == lastPage;
-
-            return reachedFirst && reachedLast;
-
-        } catch (Exception e) {
-            return false;
-        }
+        int targetPage = check.getTarget().getPageNumber();
+        boolean rightDirection = testPrevious ? targetPage < currentPage : targetPage > currentPage;
+        return check.isOk() && rightDirection;
     }
 
     /**
@@ -538,66 +618,19 @@ public class HotelAvailabilityPageObjects {
         return sortedPages.get(0) == 1;
     }
 
-    /**
-     * Validate URL parameter consistency
-     */
-    private boolean validateUrlParameterConsistency() {
-        try {
-            List<Integer> availablePages = getAvailablePageNumbers();
-
-            for (Integer pageNumber : availablePages) {
-                clickPageNumber(pageNumber);
-                waitUtility.waitForPageLoad();
-
-                String currentUrl = page.url();
-
-                // Check if URL contains correct page parameter
-                if (!currentUrl.contains("page=" + pageNumber)) {
-                    return false;
-                }
-
-                // Check if displayed page matches URL parameter
-                int displayedPage = getCurrentPageNumber();
-                if (displayedPage != pageNumber) {
-                    return false;
-                }
-            }
-
-            return true;
-
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     /**
      * Check for broken pagination links (returns 404 or other errors)
+     * The links are fetched over HTTP in one concurrent pass; the page under test does not navigate
      */
     public List<String> checkForBrokenPaginationLinks() {
         List<String> brokenLinks = new ArrayList<>();
 
         try {
-            Locator pageLinks = page.locator(PAGE_LINKS);
-
-            for (int i = 0; i < pageLinks.count(); i++) {
-                String href = pageLinks.nth(i).getAttribute("href");
-                if (href != null && !href.isEmpty()) {
-                    // Check if link is accessible
-                    try {
-                        pageLinks.nth(i).click();
-                        waitUtility.waitForPageLoad();
-
-                        // Check for error indicators
-                        if (page.isVisible("text=404") ||
-                                page.isVisible("text=Not Found") ||
-                                page.isVisible("text=Error") ||
-                                page.title().toLowerCase().contains("error")) {
-                            brokenLinks.add(href);
-                        }
-
-                    } catch (Exception e) {
-                        brokenLinks.add(href + " - Exception: " + e.getMessage());
-                    }
+            PaginationHttpValidator validator = new PaginationHttpValidator(page);
+            for (PaginationHttpValidator.PageCheck check :
+                    validator.check(validator.collectTargets(PAGE_LINKS), RESULTS_PAGE_MARKER, ERROR_PAGE_MARKERS)) {
+                if (!check.isOk()) {
+                    brokenLinks.add(check.getTarget().getUrl() + " - " + check.getProblem());
                 }
             }
 
@@ -625,6 +658,7 @@ public class HotelAvailabilityPageObjects {
         public boolean overallValidationPassed = false;
         public String validationMessage = "";
         public int originalPage = 1;
+        public List<String> linkProblems = new ArrayList<>();
 
         /**
          * Check if overall validation was successful
@@ -679,6 +713,7 @@ public class HotelAvailabilityPageObjects {
             sb.append("- Page Sequence Valid: ").append(isPageSequenceValid).append("\n");
             sb.append("- URL Parameter Consistent: ").append(isUrlParameterConsistent).append("\n");
             sb.append("- Overall Validation: ").append(overallValidationPassed ? "PASSED" : "FAILED").append("\n");
+            sb.append("- Link Problems: ").append(linkProblems).append("\n");
             sb.append("- Message: ").append(validationMessage);
             return sb.toString();
         }
@@ -780,13 +815,7 @@ public class HotelAvailabilityPageObjects {
      * Get all hotel names from the current page
      */
     public List<String> getAllHotelNames() {
-        List<String> hotelNames = new ArrayList<>();
-        Locator hotelLinks = page.locator(HOTEL_NAME_LINK);
-
-        for (int i = 0; i < hotelLinks.count(); i++) {
-            hotelNames.add(hotelLinks.nth(i).textContent().trim());
-        }
-        return hotelNames;
+        return LocatorBatchReader.readTexts(page.locator(HOTEL_NAME_LINK));
     }
 
     /**
@@ -871,12 +900,10 @@ public class HotelAvailabilityPageObjects {
     public void waitForRatesToLoad() {
         // Wait for loading indicator to disappear
         if (page.isVisible(CHECKING_AVAILABILITY_TEXT)) {
-            page.waitForSelector(CHECKING_AVAILABILITY_TEXT, new Page.WaitForSelectorOptions()
-                    .setState(WaitForSelectorState.HIDDEN).setTimeout(30000));
+            waitUtility.waitForElementToDisappear(CHECKING_AVAILABILITY_TEXT, 30000);
         }
         if (page.isVisible(RATES_LOADING_IMAGE)) {
-            page.waitForSelector(RATES_LOADING_IMAGE, new Page.WaitForSelectorOptions()
-                    .setState(WaitForSelectorState.HIDDEN).setTimeout(30000));
+            waitUtility.waitForElementToDisappear(RATES_LOADING_IMAGE, 30000);
         }
         // Wait for rates container to be visible
         waitUtility.waitForElementVisible(HOTEL_RATES_CONTAINER);
@@ -933,13 +960,7 @@ public class HotelAvailabilityPageObjects {
      * Get all rate prices in USD
      */
     public List<String> getAllRatePricesUSD() {
-        List<String> prices = new ArrayList<>();
-        Locator priceElements = page.locator(RATE_PRICE_USD);
-
-        for (int i = 0; i < priceElements.count(); i++) {
-            prices.add(priceElements.nth(i).textContent().trim());
-        }
-        return prices;
+        return LocatorBatchReader.readTexts(page.locator(RATE_PRICE_USD));
     }
 
     /**
@@ -1104,8 +1125,8 @@ public class HotelAvailabilityPageObjects {
      */
     public void validateRateInformationDisplayed() {
         try {
-            // Wait for rates to load (checking availability may take time)
-            page.waitForTimeout(5000);
+            // Wait for the rates request to finish and the results to stop changing
+            waitUtility.waitForQuiet(HOTEL_RESULTS_PANEL);
 
             // Check for rate container or rate information
             boolean ratesDisplayed = page.isVisible(HOTEL_RATES_CONTAINER) ||
@@ -1122,8 +1143,13 @@ public class HotelAvailabilityPageObjects {
                         page.isVisible("text=Checking Availability");
 
                 if (stillLoading) {
-                    // Wait additional time for rates to load
-                    page.waitForTimeout(10000);
+                    // Wait for the loading indicator to clear, then for the rates to settle
+                    try {
+                        waitUtility.waitForElementToDisappear(CHECKING_AVAILABILITY_TEXT, RATES_LOADING_TIMEOUT);
+                        waitUtility.waitForQuiet(HOTEL_RESULTS_PANEL);
+                    } catch (TimeoutError e) {
+                        // Still loading - the re-check below reports the missing rates
+                    }
 
                     // Re-check for rates
                     ratesDisplayed = page.isVisible(HOTEL_RATES_CONTAINER) ||
@@ -1143,182 +1169,197 @@ public class HotelAvailabilityPageObjects {
         }
     }
 
+    /**
+     * Snapshot of every hotel card on the current results page, read with a single page.evaluate
+     */
+    public List<HotelCard> getHotelCards() {
+        return readHotelCards(page, getResultsPageNumber(page.url()));
+    }
+
+    /**
+     * Lazy stream over this and every following results page, one list of hotel cards per page; later pages
+     * are prefetched in a background tab and a page is only read when the stream advances to it. Close the
+     * stream (or use try-with-resources) when stopping early so the background tab is closed.
+     */
+    public Stream<List<HotelCard>> streamResultsPages() {
+        AvailabilityResultsIterator iterator = new AvailabilityResultsIterator(this, page);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Lazy stream over the hotel cards of this and every following results page (see streamResultsPages).
+     * A short-circuiting consumer may look ahead one page; use streamResultsPages to stop on a page boundary.
+     */
+    public Stream<HotelCard> streamHotelCards() {
+        return streamResultsPages().flatMap(List::stream);
+    }
+
+    /**
+     * Show the results page a card is on (from streamHotelCards) so the card can be clicked
+     */
+    public void showResultsPage(HotelCard card) {
+        if (getResultsPageNumber(page.url()) != card.getPageNumber()) {
+            page.navigate(card.getPageUrl());
+            waitUtility.waitForPageLoad();
+        }
+    }
+
+    static List<HotelCard> readHotelCards(Page source, int pageNumber) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("cards", HOTEL_CARD_CONTAINER);
+        args.put("name", HOTEL_NAME_LINK);
+        args.put("providers", HOTEL_CARD_PROVIDERS);
+        List<HotelCard> cards = new ArrayList<>();
+        Object snapshot = source.evaluate(HOTEL_CARDS_SCRIPT, args);
+        if (snapshot instanceof List) {
+            for (Object card : (List<?>) snapshot) {
+                cards.add(HotelCard.fromSnapshot(cards.size(), pageNumber, source.url(), (Map<?, ?>) card));
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * Results page number from the page= parameter of a results URL (1 when absent)
+     */
+    static int getResultsPageNumber(String url) {
+        Matcher matcher = PAGE_NUMBER_PARAM.matcher(url);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    /**
+     * Absolute URL of the pagination link to the given page, or null when the page has no such link
+     */
+    static String getPageUrl(Page source, int pageNumber) {
+        return (String) source.evaluate(PAGE_URL_SCRIPT, pageNumber);
+    }
+
+    /**
+     * Snapshot of the rate rows of an expanded hotel card, read with a single page.evaluate
+     */
+    public List<RateOption> getRateOptions(HotelCard card) {
+        return getRateOptions(Collections.singletonList(card)).get(0);
+    }
+
+    /**
+     * Snapshot of the rate rows of several expanded hotel cards in one page.evaluate, in the order given
+     */
+    public List<List<RateOption>> getRateOptions(List<HotelCard> cards) {
+        Map<String, Object> args = rateScriptArgs(cards);
+        List<List<RateOption>> ratesByCard = new ArrayList<>();
+        Object snapshot = page.evaluate(HOTEL_CARD_RATES_SCRIPT, args);
+        List<?> perCard = snapshot instanceof List ? (List<?>) snapshot : Collections.emptyList();
+        for (int c = 0; c < cards.size(); c++) {
+            List<RateOption> rates = new ArrayList<>();
+            if (c < perCard.size() && perCard.get(c) instanceof List) {
+                for (Object rate : (List<?>) perCard.get(c)) {
+                    rates.add(RateOption.fromSnapshot(rates.size(), (Map<?, ?>) rate));
+                }
+            }
+            ratesByCard.add(rates);
+        }
+        return ratesByCard;
+    }
+
+    private static Map<String, Object> rateScriptArgs(List<HotelCard> cards) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("cards", HOTEL_CARD_CONTAINER);
+        args.put("indices", cards.stream().map(HotelCard::getIndex).collect(Collectors.toList()));
+        args.put("rates", HOTEL_CARD_RATE_ITEMS);
+        return args;
+    }
+
     /**
      * Verifies hotel rates for a given provider and refund type.
+     * Cards and rates are read as snapshots; the only clicks are Check Availability on candidate hotels
+     * (rates load on demand) and Full Rate Information / Select Rate on the chosen rate.
      *
      * @param givenProviderName The content provider to check (e.g., "Sabre").
      * @param refundType        The refund type to check (e.g., "Refundable" or "Non Refundable").
      */
     public void SelectHotelRatesForProvider(String givenProviderName, String refundType) {
-        boolean isRefundableMatch = false;
-        boolean rateMatchFound = false;
+        String policyText = refundType.equalsIgnoreCase("NO") ? "Non-Refundable" : "Refundable";
         selectedHotelDetails = new HashMap<>();
         waitUtility.waitForElementVisible(HOTEL_CARD_CONTAINER);
-        Locator PageLinks = page.locator(PAGE_LINKS);
-        int totalPages = PageLinks.count();
-        if (totalPages > 0) {
-            for (int p = 0; p < totalPages; p++) {
-                String pageNumText = PageLinks.nth(p).textContent().trim();
-                if (pageNumText.matches("\\d+")) {
-                    int pageNum = Integer.parseInt(pageNumText);
-                    clickPageNumber(pageNum);
-                    waitUtility.waitForElementVisible(HOTEL_CARD_CONTAINER);
-                    Locator hotelCards = page.locator(HOTEL_CARD_CONTAINER);
-                    int hotelCount = hotelCards.count();
-                    for (int i = 0; i < hotelCount; i++) {
-                        Locator hotelCard = hotelCards.nth(i);
-                        // --- Capture Hotel Card Details ---
-                        String hotelName = hotelCard.locator(HOTEL_NAME_LINK).first().textContent().trim();
-                        selectedHotelDetails.put("HotelName", hotelName);
-                        // Hotel Address
-                        String hotelAddress = "";
-                        Locator addressLocator = hotelCard.locator(".hotelAddress");
-                        if (addressLocator.count() > 0) {
-                            hotelAddress = addressLocator.first().textContent().trim();
-                        }
-                        selectedHotelDetails.put("HotelAddress", hotelAddress);
-                        // Hotel Contact Details
-                        String hotelContactDetails = "";
-                        Locator contactLocator = hotelCard.locator(".hotelContactDetails");
-                        if (contactLocator.count() > 0) {
-                            hotelContactDetails = contactLocator.first().textContent().trim();
-                        }
-                        selectedHotelDetails.put("HotelContactDetails", hotelContactDetails);
-                        // Location Details
-                        String locationDetails = "";
-                        Locator locationLocator = hotelCard.locator("#LocationDetails");
-                        if (locationLocator.count() > 0) {
-                            locationDetails = locationLocator.first().textContent().trim();
-                        }
-                        selectedHotelDetails.put("LocationDetails", locationDetails);
-                        // Tags
-                        String tags = "";
-                        Locator tagsLocator = hotelCard.locator("#divTags ul.nav-pills li");
-                        if (tagsLocator.count() > 0) {
-                            List<String> tagList = new ArrayList<>();
-                            for (int t = 0; t < tagsLocator.count(); t++) {
-                                tagList.add(tagsLocator.nth(t).textContent().trim());
-                            }
-                            tags = String.join(", ", tagList);
-                        }
-                        selectedHotelDetails.put("Tags", tags);
-                        // --- End Hotel Card Details ---
-                        Locator providerList = hotelCard.locator(".activeContentProviderRow ul.list-inline li");
-                        boolean providerFound = false;
-                        int providerCount = providerList.count();
-                        for (int j = 0; j < providerCount; j++) {
-                            String contentProviderName = providerList.nth(j).textContent().trim();
-                            boolean contentProviderMatch = contentProviderName.equalsIgnoreCase(givenProviderName);
-                            if (!contentProviderMatch) {
-                                continue;
-                            }
-                            if (contentProviderMatch) {
-                                providerFound = true;
-                                hotelCard.locator(CHECK_AVAILABILITY_LINK).first().click();
-                                waitUtility.waitForPageLoad();
-                                Locator rateItems = hotelCard.locator("//div[starts-with(@id, 'rates')]/div/div");
-                                int rateCount = rateItems.count();
-                                rateMatchFound = false;
-                                for (int k = 0; k < rateCount; k++) {
-                                    Locator rateItem = rateItems.nth(k);
-                                    String rateProvider = "";
-                                    Locator providerLabel = rateItem.locator("div.rateDescription b big");
-                                    if (providerLabel.count() > 0) {
-                                        rateProvider = providerLabel.first().textContent().replaceAll("[()\n\r]", "").trim();
-                                    }
-                                    if (!rateProvider.equalsIgnoreCase(givenProviderName)) {
-                                        continue;
-                                    }
-                                    Locator element = rateItem.locator(FULL_RATE_INFO_LINK);
-                                    element.scrollIntoViewIfNeeded();
-                                    element.waitFor();
-                                    rateItem.locator(FULL_RATE_INFO_LINK).first().click();
-                                    waitUtility.waitForElementVisible(RATE_INFORMATION_HEADER);
-                                    if (refundType.equalsIgnoreCase("NO")) {
-                                        refundType = "Non-Refundable";
-                                    } else {
-                                        refundType = "Refundable";
-                                    }
-
-                                    Locator CancellationpolicyLocator =  rateItem.locator(CANCELLATION_POLICY_LOCATOR);
-                                    String CancellationPolicy = CancellationpolicyLocator.first().textContent().trim();
-                                    isRefundableMatch = CancellationPolicy.toLowerCase().contains(refundType.toLowerCase());
-                                    if (isRefundableMatch) {
-                                        // --- Capture Rate Item Details ---
-                                        // roomType
-                                        String roomType = "";
-                                        Locator roomTypeLocator = rateItem.locator(".roomType");
-                                        if (roomTypeLocator.count() > 0) {
-                                            roomType = roomTypeLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("roomType", roomType);
-                                        // rateDescription
-                                        String rateDescription = "";
-                                        Locator rateDescLocator = rateItem.locator(".rateDescription");
-                                        if (rateDescLocator.count() > 0) {
-                                            rateDescription = rateDescLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("rateDescription", rateDescription);
-                                        // CancellationPolicy
-
-                                        String CancellationPolicyText = "";
-                                        Locator CancellationPolicyLocator = rateItem.locator("#divCancellationPolicy");
-                                        if (CancellationPolicyLocator.count() > 0) {
-                                            CancellationPolicyText = CancellationPolicyLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("CancellationPolicy", CancellationPolicyText);
-                                        // ratePrice
-                                        String ratePrice = "";
-                                        Locator ratePriceLocator = rateItem.locator(".ratePrice h4");
-                                        if (ratePriceLocator.count() > 0) {
-                                            ratePrice = ratePriceLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("ratePrice", ratePrice);
-                                        // RateBreakdown
-                                        String rateBreakdown = "";
-                                        Locator rateBreakdownLocator = rateItem.locator(".productFullInfo");
-                                        if (rateBreakdownLocator.count() > 0) {
-                                            rateBreakdown = rateBreakdownLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("RateBreakdown", rateBreakdown);
-                                        // RoomDescription
-                                        String roomDescription = "";
-                                        Locator roomDescLocator = rateItem.locator(".roomType");
-                                        if (roomDescLocator.count() > 0) {
-                                            roomDescription = roomDescLocator.first().textContent().trim();
-                                        }
-                                        selectedHotelDetails.put("RoomDescription", roomDescription);
-                                        // --- End Rate Item Details ---
-                                        rateMatchFound = true;
-                                        rateItem.locator(SELECT_RATE_BUTTON).first().click();
-                                    }
-                                    if (isRefundableMatch && rateMatchFound) {
-                                        break;
-                                    } else {
-                                        rateItem.locator(LESS_INFO_LINK).first().click();
-                                    }
-                                }
-                            }
-                            if (isRefundableMatch && rateMatchFound) {
-                                break;
-                            } else {
-                                hotelCards.locator(HIDE_AVAILABILITY_LINK).first().click();
-                            }
-                        }
-                        if (isRefundableMatch && rateMatchFound) {
-                            break;
-                        }
-                    }
-                }
-                if (isRefundableMatch && rateMatchFound) {
-                    break;
-                } else {
-                    if (isNextPageAvailable()) {
-                        clickNextPage();
-                        waitUtility.waitForElementVisible(HOTEL_CARD_CONTAINER);
+        int batchSize = ConfigReader.getBooleanProperty("concurrentRateExpansion", false)
+                ? Math.max(1, ConfigReader.getIntProperty("rateExpansionConcurrency", 4)) : 1;
+        // Later results pages are read from the prefetch tab and only shown when they hold a candidate hotel.
+        // Every batch of a page is tried before the next page is asked for, so a match on page N costs
+        // at most the prefetch of page N+1.
+        try (Stream<List<HotelCard>> resultsPages = streamResultsPages()) {
+            Iterator<List<HotelCard>> pages = resultsPages.iterator();
+            while (pages.hasNext()) {
+                List<HotelCard> candidates = pages.next().stream()
+                        .filter(card -> card.hasProvider(givenProviderName))
+                        .collect(Collectors.toList());
+                for (int from = 0; from < candidates.size(); from += batchSize) {
+                    List<HotelCard> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+                    if (selectRateInBatch(batch, givenProviderName, policyText)) {
+                        return;
                     }
                 }
             }
         }
     }
+
+    /**
+     * Expand the rates of a batch of hotel cards, then select the first rate (in card order) of the provider
+     * whose cancellation policy mentions policyText. All Check Availability clicks of the batch are issued
+     * before waiting, so the provider calls run concurrently and the batch costs about as much as its
+     * slowest call. Cards are collapsed again when the batch has no such rate.
+     */
+    private boolean selectRateInBatch(List<HotelCard> batch, String providerName, String policyText) {
+        showResultsPage(batch.get(0));
+        Locator hotelCards = page.locator(HOTEL_CARD_CONTAINER);
+        for (HotelCard card : batch) {
+            hotelCards.nth(card.getIndex()).locator(CHECK_AVAILABILITY_LINK).first().click();
+        }
+        if (batch.size() == 1) {
+            waitUtility.waitForPageLoad();
+        } else {
+            waitUtility.waitForFunction("hotel card rates loaded", HOTEL_CARD_RATES_LOADED_SCRIPT, rateScriptArgs(batch), RATES_BATCH_TIMEOUT);
+        }
+        List<List<RateOption>> ratesByCard = getRateOptions(batch);
+        for (int c = 0; c < batch.size(); c++) {
+            RateOption chosen = ratesByCard.get(c).stream()
+                    .filter(rate -> rate.getProvider().equalsIgnoreCase(providerName))
+                    .filter(rate -> rate.getCancellationPolicy().toLowerCase().contains(policyText.toLowerCase()))
+                    .findFirst()
+                    .orElse(null);
+            if (chosen != null) {
+                selectRate(batch.get(c), chosen);
+                return true;
+            }
+        }
+        for (HotelCard card : batch) {
+            hotelCards.nth(card.getIndex()).locator(HIDE_AVAILABILITY_LINK).first().click();
+        }
+        return false;
+    }
+
+    /**
+     * Record the chosen hotel and rate in selectedHotelDetails, open its full rate information and select it
+     */
+    private void selectRate(HotelCard card, RateOption chosen) {
+        selectedHotelDetails.put("HotelName", card.getName());
+        selectedHotelDetails.put("HotelAddress", card.getAddress());
+        selectedHotelDetails.put("HotelContactDetails", card.getContactDetails());
+        selectedHotelDetails.put("LocationDetails", card.getLocationDetails());
+        selectedHotelDetails.put("Tags", String.join(", ", card.getTags()));
+        selectedHotelDetails.put("roomType", chosen.getRoomType());
+        selectedHotelDetails.put("rateDescription", chosen.getRateDescription());
+        selectedHotelDetails.put("CancellationPolicy", chosen.getCancellationPolicyDetails());
+        selectedHotelDetails.put("ratePrice", chosen.getRatePrice());
+        selectedHotelDetails.put("RateBreakdown", chosen.getRateBreakdown());
+        selectedHotelDetails.put("RoomDescription", chosen.getRoomType());
+
+        Locator rateItem = page.locator(HOTEL_CARD_CONTAINER).nth(card.getIndex()).locator(HOTEL_CARD_RATE_ITEMS).nth(chosen.getIndex());
+        Locator fullRateInfo = rateItem.locator(FULL_RATE_INFO_LINK);
+        fullRateInfo.scrollIntoViewIfNeeded();
+        waitUtility.waitForLocator(fullRateInfo, FULL_RATE_INFO_LINK);
+        fullRateInfo.first().click();
+        waitUtility.waitForElementVisible(RATE_INFORMATION_HEADER);
+        rateItem.locator(SELECT_RATE_BUTTON).first().click();
+    }
 }
\ No newline at end of file
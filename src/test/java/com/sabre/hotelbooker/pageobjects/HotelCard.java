@@ -0,0 +1,114 @@
+package com.sabre.hotelbooker.pageobjects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HotelCard - Immutable snapshot of one hotel result card on the availability page
+ * Built from a single in-page extraction, see HotelAvailabilityPageObjects.getHotelCards()
+ */
+public final class HotelCard {
+
+    private final int index;
+    private final int pageNumber;
+    private final String pageUrl;
+    private final String name;
+    private final String address;
+    private final String contactDetails;
+    private final String locationDetails;
+    private final List<String> tags;
+    private final List<String> providers;
+
+    private HotelCard(int index, int pageNumber, String pageUrl, String name, String address, String contactDetails,
+                      String locationDetails, List<String> tags, List<String> providers) {
+        this.index = index;
+        this.pageNumber = pageNumber;
+        this.pageUrl = pageUrl;
+        this.name = name;
+        this.address = address;
+        this.contactDetails = contactDetails;
+        this.locationDetails = locationDetails;
+        this.tags = Collections.unmodifiableList(new ArrayList<>(tags));
+        this.providers = Collections.unmodifiableList(new ArrayList<>(providers));
+    }
+
+    /**
+     * Map one card object returned by the extraction script
+     */
+    static HotelCard fromSnapshot(int index, int pageNumber, String pageUrl, Map<?, ?> card) {
+        return new HotelCard(index, pageNumber, pageUrl, text(card, "name"), text(card, "address"), text(card, "contact"),
+            text(card, "location"), list(card, "tags"), list(card, "providers"));
+    }
+
+    /**
+     * Position of the card among the hotel cards on its results page (0-based)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Results page the card is on (1-based)
+     */
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    /**
+     * URL of the results page the card is on
+     */
+    public String getPageUrl() {
+        return pageUrl;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getContactDetails() {
+        return contactDetails;
+    }
+
+    public String getLocationDetails() {
+        return locationDetails;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<String> getProviders() {
+        return providers;
+    }
+
+    public boolean hasProvider(String providerName) {
+        return providers.stream().anyMatch(provider -> provider.equalsIgnoreCase(providerName));
+    }
+
+    @Override
+    public String toString() {
+        return "HotelCard{page " + pageNumber + " #" + index + ", " + name + ", providers=" + providers + "}";
+    }
+
+    static String text(Map<?, ?> source, String key) {
+        Object value = source.get(key);
+        return value == null ? "" : value.toString();
+    }
+
+    static List<String> list(Map<?, ?> source, String key) {
+        List<String> values = new ArrayList<>();
+        Object value = source.get(key);
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                values.add(String.valueOf(item));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sabre.hotelbooker.pageobjects;
+
+import java.util.Map;
+
+/**
+ * RateOption - Immutable snapshot of one rate row of an expanded hotel card
+ * The full rate information is read from the DOM while still collapsed, so only the chosen rate is ever clicked
+ */
+public final class RateOption {
+
+    private final int index;
+    private final String provider;
+    private final String roomType;
+    private final String rateDescription;
+    private final String cancellationPolicy;
+    private final String cancellationPolicyDetails;
+    private final String ratePrice;
+    private final String rateBreakdown;
+
+    private RateOption(int index, String provider, String roomType, String rateDescription, String cancellationPolicy,
+                       String cancellationPolicyDetails, String ratePrice, String rateBreakdown) {
+        this.index = index;
+        this.provider = provider;
+        this.roomType = roomType;
+        this.rateDescription = rateDescription;
+        this.cancellationPolicy = cancellationPolicy;
+        this.cancellationPolicyDetails = cancellationPolicyDetails;
+        this.ratePrice = ratePrice;
+        this.rateBreakdown = rateBreakdown;
+    }
+
+    /**
+     * Map one rate object returned by the extraction script
+     */
+    static RateOption fromSnapshot(int index, Map<?, ?> rate) {
+        return new RateOption(index, HotelCard.text(rate, "provider"), HotelCard.text(rate, "roomType"),
+            HotelCard.text(rate, "rateDescription"), HotelCard.text(rate, "policy"), HotelCard.text(rate, "policyDetails"),
+            HotelCard.text(rate, "price"), HotelCard.text(rate, "breakdown"));
+    }
+
+    /**
+     * Position of the rate among the rate rows of its hotel card (0-based)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Content provider from the rate label, without the surrounding parentheses
+     */
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public String getRateDescription() {
+        return rateDescription;
+    }
+
+    /**
+     * First paragraph of the cancellation policy, used to tell refundable rates apart
+     */
+    public String getCancellationPolicy() {
+        return cancellationPolicy;
+    }
+
+    /**
+     * Full cancellation policy block
+     */
+    public String getCancellationPolicyDetails() {
+        return cancellationPolicyDetails;
+    }
+
+    public String getRatePrice() {
+        return ratePrice;
+    }
+
+    public String getRateBreakdown() {
+        return rateBreakdown;
+    }
+
+    @Override
+    public String toString() {
+        return "RateOption{" + index + ", " + provider + ", " + roomType + ", " + ratePrice + "}";
+    }
+}
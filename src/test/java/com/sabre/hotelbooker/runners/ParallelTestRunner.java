@@ -0,0 +1,22 @@
+package com.sabre.hotelbooker.runners;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+
+/**
+ * Parallel runner on the Cucumber JUnit Platform engine.
+ * Run with: mvn test -Pparallel -Dparallel.threads=N -Dcucumber.filter.tags=@sanity
+ * (worker count defaults to 4 in the pom)
+ */
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("features")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.sabre.hotelbooker.stepdefinitions")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, html:reports/cucumber-html-report.html, com.sabre.hotelbooker.configreaderutils.ExtentStepLogger, com.sabre.hotelbooker.extentreportutils.RunStatistics")
+public class ParallelTestRunner {
+}
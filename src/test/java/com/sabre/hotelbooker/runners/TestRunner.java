@@ -11,7 +11,8 @@ import org.junit.runner.RunWith;
     plugin = {
         "pretty",
         "html:reports/cucumber-html-report.html",
-        "com.sabre.hotelbooker.configreaderutils.ExtentStepLogger"
+        "com.sabre.hotelbooker.configreaderutils.ExtentStepLogger",
+        "com.sabre.hotelbooker.extentreportutils.RunStatistics"
     },
         tags = "@AI"
 )
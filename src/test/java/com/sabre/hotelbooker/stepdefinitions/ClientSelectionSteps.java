@@ -13,12 +13,12 @@ public class ClientSelectionSteps {
 
     @Before
     public void assignUtility() {
-        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.page);
+        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.getPage());
     }
 
     @When("selects client {string}")
     public void selects_client(String clientName) {
-        PlayWrightBaseTest.captureScreenshotWithInfo(PlayWrightBaseTest.page, "Selecting client: ",Hooks.test.get());
+        PlayWrightBaseTest.captureScreenshotWithInfo(PlayWrightBaseTest.getPage(), "Selecting client: ",Hooks.test.get());
         hotelBookerUtility.clientSelectionPageObjects.selectClient(clientName);
     }
     @Then("Validate selected client should display on header")
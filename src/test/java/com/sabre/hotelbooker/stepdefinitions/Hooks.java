@@ -3,11 +3,21 @@ import com.sabre.hotelbooker.configreaderutils.ExtentStepLogger;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.sabre.hotelbooker.configreaderutils.ConfigReader;
 import com.sabre.hotelbooker.extentreportutils.ExtentReportManager;
+import com.sabre.hotelbooker.extentreportutils.ResultJournal;
 import com.sabre.hotelbooker.extentreportutils.TestExecutionState;
+import com.sabre.hotelbooker.hotelbookerutility.AdaptiveTimeouts;
+import com.sabre.hotelbooker.hotelbookerutility.WaitStatistics;
 import com.sabre.hotelbooker.loggerutils.LogDirectoryManager;
 import com.sabre.hotelbooker.loggerutils.LoggerUtil;
+import com.sabre.hotelbooker.playwrightbase.BrowserContextPool;
+import com.sabre.hotelbooker.playwrightbase.BrowserRecyclePolicy;
+import com.sabre.hotelbooker.playwrightbase.HarArchive;
+import com.sabre.hotelbooker.playwrightbase.PersistentBrowserProfile;
 import com.sabre.hotelbooker.playwrightbase.PlayWrightBaseTest;
+import com.sabre.hotelbooker.playwrightbase.ScreenshotService;
+import com.sabre.hotelbooker.standin.StandInServer;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
@@ -15,22 +25,17 @@ import io.cucumber.java.Scenario;
 import io.cucumber.java.AfterStep;
 import io.cucumber.java.Status;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 
 import java.nio.file.*;
 import java.io.IOException;
 
 public class Hooks {
-    public static ExtentReports extent;
+    public static volatile ExtentReports extent;
     public static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
     private static final java.util.Map<String, ExtentTest> featureParentMap = new java.util.concurrent.ConcurrentHashMap<>();
-    private static final java.util.Set<String> featureSet = java.util.Collections.synchronizedSet(new java.util.HashSet<>());
-    private static final java.util.Set<String> scenarioSet = java.util.Collections.synchronizedSet(new java.util.HashSet<>());
-    private static final AtomicInteger stepCount = new AtomicInteger(0);
-    private static final AtomicInteger passCount = new AtomicInteger(0);
-    private static final AtomicInteger failCount = new AtomicInteger(0);
-    private static final AtomicInteger skipCount = new AtomicInteger(0);
+    private static final java.util.Map<String, String> featureJournalMap = new java.util.concurrent.ConcurrentHashMap<>();
     private String getFeatureTitle(Scenario scenario) {
         try {
             // Cucumber's Scenario object does not expose the feature title directly, so parse from the URI
@@ -70,23 +75,30 @@ public class Hooks {
         LoggerUtil.logInfo("Starting test scenario: {}", scenarioName);
 
         // Get or create the parent node for the feature (using the Gherkin Feature title)
-        ExtentTest parentNode = featureParentMap.computeIfAbsent(featureTitle, fn -> {
-            ExtentTest parent = extent.createTest(fn);
-            LoggerUtil.logDebug("[DEBUG] Created parent ExtentTest for feature: {}", fn);
-            return parent;
-        });
-
-        // Create a child node for the scenario under the feature parent
-        ExtentTest scenarioNode = parentNode.createNode(scenarioName);
-
-                        // Track unique features and scenarios
-                        featureSet.add(featureTitle);
-                        scenarioSet.add(scenarioName);
+        // Without the live report only the result journal records the nodes
+        ExtentTest scenarioNode = null;
+        if (ExtentReportManager.isLiveReport()) {
+            ExtentTest parentNode = featureParentMap.computeIfAbsent(featureTitle, fn -> {
+                ExtentTest parent = ExtentReportManager.createTest(fn);
+                LoggerUtil.logDebug("[DEBUG] Created parent ExtentTest for feature: {}", fn);
+                return parent;
+            });
+
+            // Create a child node for the scenario under the feature parent
+            scenarioNode = parentNode.createNode(scenarioName);
+        }
+        String featureJournalId = featureJournalMap.computeIfAbsent(featureTitle, fn -> ResultJournal.startTest(null, fn));
+        String scenarioJournalId = ResultJournal.startTest(featureJournalId, scenarioName);
+        ResultJournal.setCurrentNode(scenarioJournalId);
+
         // Add tags to the scenario node for filtering
         if (scenario.getSourceTagNames() != null && !scenario.getSourceTagNames().isEmpty()) {
             for (String tag : scenario.getSourceTagNames()) {
                 String cleanTag = tag.replace("@", "");
-                scenarioNode.assignCategory(cleanTag);
+                if (scenarioNode != null) {
+                    scenarioNode.assignCategory(cleanTag);
+                }
+                ResultJournal.assignCategory(scenarioJournalId, cleanTag);
                 LoggerUtil.logDebug("[DEBUG] Assigned tag/category: {}", cleanTag);
             }
         }
@@ -94,7 +106,14 @@ public class Hooks {
         test.set(scenarioNode);
         TestExecutionState.resetCriticalFailureState();
         LoggerUtil.logDebug("[DEBUG] ExtentTest set in ThreadLocal: {}", (test.get() != null));
-        PlayWrightBaseTest.initialize();
+        if (StandInServer.isEnabled()) {
+            StandInServer.ensureStarted();
+        }
+        HarArchive.begin(getFeatureName(scenario), baseScenarioName, scenario.getLine());
+        PlayWrightBaseTest.initialize(scenario.getSourceTagNames());
+        if (PlayWrightBaseTest.getRecycleEvent() != null) {
+            Extent_INFO("Browser recycled before this scenario: " + PlayWrightBaseTest.getRecycleEvent());
+        }
     }
 
     /**
@@ -111,29 +130,32 @@ public class Hooks {
         String coloredStep = stepName.replaceAll("^(Given|When|Then|And)", "<span style='color:#0074D9;font-weight:bold;'>$1</span>");
 
         ExtentTest currentTest = test.get();
-        if (currentTest == null) return;
+        if (currentTest == null && ResultJournal.getCurrentNode() == null) return;
 
         Status status = scenario.getStatus();
-        stepCount.incrementAndGet();
+        com.aventstack.extentreports.Status stepStatus;
         switch (status) {
             case PASSED:
-                passCount.incrementAndGet();
-                currentTest.pass(coloredStep);
+                stepStatus = com.aventstack.extentreports.Status.PASS;
                 break;
             case FAILED:
-                failCount.incrementAndGet();
-                currentTest.fail(coloredStep);
+                stepStatus = com.aventstack.extentreports.Status.FAIL;
                 break;
             case SKIPPED:
-                skipCount.incrementAndGet();
-                currentTest.skip(coloredStep);
+                stepStatus = com.aventstack.extentreports.Status.SKIP;
                 break;
             case PENDING:
-                currentTest.warning(coloredStep);
+                stepStatus = com.aventstack.extentreports.Status.WARNING;
                 break;
             default:
-                currentTest.info(coloredStep);
+                stepStatus = com.aventstack.extentreports.Status.INFO;
         }
+        if (currentTest != null) {
+            currentTest.log(stepStatus, coloredStep);
+        }
+        ResultJournal.logCurrent(stepStatus, coloredStep);
+        // per-step / sampled screenshot policies
+        ScreenshotService.capture(PlayWrightBaseTest.getPage(), "After step: " + stepName, currentTest, ScreenshotService.Trigger.STEP);
     }
 
 
@@ -165,26 +187,79 @@ public class Hooks {
 
         // Capture screenshot if test failed
         if (scenario.isFailed()) {
-            PlayWrightBaseTest.captureScreenshotWithInfo(PlayWrightBaseTest.page, "Test case Failed", Hooks.test.get());
+            ScreenshotService.capture(PlayWrightBaseTest.getPage(), "Test case Failed", Hooks.test.get(), ScreenshotService.Trigger.FAILURE);
+        }
+        String requestBlocking = PlayWrightBaseTest.getRequestBlockingSummary();
+        if (!requestBlocking.isEmpty()) {
+            LoggerUtil.logInfo("Request blocking: {}", requestBlocking);
+            Extent_INFO("Request blocking: " + requestBlocking);
         }
         LoggerUtil.clearTestContext();
         LoggerUtil.cleanup();
         PlayWrightBaseTest.tearDown();
+        // Checked after tearDown: closing the context is what writes a recorded HAR
+        java.util.List<String> harMisses = HarArchive.end();
+        if (!harMisses.isEmpty()) {
+            Extent_FAIL("Requests not found in the HAR archive:<br>" + String.join("<br>", harMisses));
+        }
         test.remove();
+        ResultJournal.clearCurrentNode();
         TestExecutionState.cleanup();
+        if (!harMisses.isEmpty()) {
+            throw new IllegalStateException(harMisses.size() + " request(s) not found in the HAR archive: " + String.join(", ", harMisses));
+        }
     }
     @AfterAll
     public static void tearDownAll() {
+        String setupTiming = PlayWrightBaseTest.getSetupTimingSummary();
+        LoggerUtil.logInfo("Browser setup timing: {}", setupTiming);
+        String contextPoolStats = BrowserContextPool.getStatsSummary();
+        LoggerUtil.logInfo("Context pool: {}", contextPoolStats);
+        AdaptiveTimeouts.save();
+        String waitSummary = WaitStatistics.getSummary();
+        List<String> topWaitSites = WaitStatistics.getTopSites(ConfigReader.getIntProperty("waitReportTopSites", 10));
+        LoggerUtil.logInfo("Wait time: {}", waitSummary);
+        if (ExtentReportManager.reportDir != null) {
+            WaitStatistics.writeCsv(Paths.get(ExtentReportManager.reportDir, "wait-times.csv"));
+        }
+        ScreenshotService.awaitWrites();
+        String screenshotStats = ScreenshotService.getStatsSummary();
+        LoggerUtil.logInfo("Screenshots: {}", screenshotStats);
+        String recycleSummary = BrowserRecyclePolicy.getSummary();
+        LoggerUtil.logInfo("Browser recycling: {}", recycleSummary);
+        PlayWrightBaseTest.shutdown();
+        String standInStats = StandInServer.isEnabled() ? StandInServer.getStatsSummary() : null;
+        StandInServer.stop();
+        String profileCacheTiming = PersistentBrowserProfile.isEnabled() ? PersistentBrowserProfile.getTimingSummary() : null;
+        if (profileCacheTiming != null) {
+            LoggerUtil.logInfo("Browser profile cache: {}", profileCacheTiming);
+        }
         if (extent != null) {
-            extent.flush();
+            ExtentReportManager.setSystemInfo("Browser Setup Timing", setupTiming);
+            ExtentReportManager.setSystemInfo("Context Pool", contextPoolStats);
+            ExtentReportManager.setSystemInfo("Browser Recycling", recycleSummary);
+            ExtentReportManager.setSystemInfo("Wait Time", waitSummary);
+            ExtentReportManager.setSystemInfo("Screenshots", screenshotStats);
+            for (int i = 0; i < topWaitSites.size(); i++) {
+                ExtentReportManager.setSystemInfo("Wait Site #" + (i + 1), topWaitSites.get(i));
+            }
+            if (profileCacheTiming != null) {
+                ExtentReportManager.setSystemInfo("Browser Profile Cache", profileCacheTiming);
+            }
+            if (standInStats != null) {
+                ExtentReportManager.setSystemInfo("Stand-in Server", standInStats);
+            }
+            // Renders before this final flush; the final render time is in the log
+            ExtentReportManager.setSystemInfo("Report Rendering", ExtentReportManager.getFlushStats());
+            ExtentReportManager.flush();
         }
         LogDirectoryManager.closeLogFiles();
         LoggerUtil.logInfo("Test execution completed - all log files closed");
     }
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            if (extent != null) {
-                extent.flush();
+            // No-op when tearDownAll already ran the final flush
+            if (extent != null && ExtentReportManager.flush()) {
                 LoggerUtil.getLogger(Hooks.class).info("[HOOK] ExtentReports flushed in shutdown hook.");
             }
         }));
@@ -196,6 +271,7 @@ public class Hooks {
      * Log custom info to the current ExtentTest node. Safe to call from any class (including PageObjects).
      */
     public static void Extent_INFO(String message) {
+        ResultJournal.logCurrent(com.aventstack.extentreports.Status.INFO, message);
         ExtentTest t = test.get();
         if (t != null) {
             t.info(message);
@@ -203,6 +279,7 @@ public class Hooks {
         }
     }
     public static void Extent_WARNING(String message) {
+        ResultJournal.logCurrent(com.aventstack.extentreports.Status.WARNING, message);
         ExtentTest t = test.get();
         if (t != null) {
             t.warning(message);
@@ -210,6 +287,7 @@ public class Hooks {
         }
     }
     public static void Extent_FAIL(String message) {
+        ResultJournal.logCurrent(com.aventstack.extentreports.Status.FAIL, message);
         ExtentTest t = test.get();
         if (t != null) {
             t.fail(message);
@@ -12,7 +12,7 @@ public class HotelAvailabilitySteps {
 
     @Before
     public void assignUtility(Scenario scenario) {
-        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.page);
+        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.getPage());
         this.scenario = scenario;
     }
 
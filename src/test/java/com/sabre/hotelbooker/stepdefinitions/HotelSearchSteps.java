@@ -15,8 +15,8 @@ public class HotelSearchSteps {
 
     @Before
     public void assignUtility(Scenario scenario) {
-        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.page);
-        explicitWaitUtility = new ExplicitWaitUtility(PlayWrightBaseTest.page);
+        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.getPage());
+        explicitWaitUtility = new ExplicitWaitUtility(PlayWrightBaseTest.getPage());
     }
 
     @Then("selected client should display on header")
@@ -27,7 +27,7 @@ public class HotelSearchSteps {
     @When("user selects country {string}")
     public void user_selects_country(String country) {
         explicitWaitUtility.waitForPageLoad();
-        PlayWrightBaseTest.captureScreenshotWithInfo(PlayWrightBaseTest.page, "Client Selection page",Hooks.test.get());
+        PlayWrightBaseTest.captureScreenshotWithInfo(PlayWrightBaseTest.getPage(), "Client Selection page",Hooks.test.get());
         hotelBookerUtility.hotelSearchPage.selectCountry(country);
     }
 
@@ -12,7 +12,7 @@ public class LoginPageSteps {
 
     @Before
     public void assignUtility(Scenario scenario) {
-        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.page);
+        hotelBookerUtility = new HotelBookerUtility(PlayWrightBaseTest.getPage());
     }
 
     @Given("Open Browser and Navigate to HotelBooker")